@@ -0,0 +1,79 @@
+package org.planqk.library.core.repository;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.entry.BibEntry;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by the entries of a synthetic library, with and without compacting them.
+ * The retained bytes per entry are reported as secondary result {@code retainedBytesPerEntry}, they are measured by
+ * comparing the used heap after a garbage collection before and after creating the entries.
+ * Compare the results of both values of {@code compact} to get the heap saved by {@link CompactEntries}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CompactEntriesBenchmark {
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"false", "true"})
+    public boolean compact;
+
+    // Retained like the dictionary of a cached library, so that its heap is measured as well
+    private CompactEntries compactEntries;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        public long retainedBytesPerEntry;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytesPerEntry = 0;
+        }
+    }
+
+    @Benchmark
+    public List<BibEntry> createEntries(RetainedHeap retainedHeap) {
+        // Releases the dictionary of the previous iteration before measuring
+        compactEntries = null;
+        long before = getUsedHeap();
+        List<BibEntry> entries = SyntheticLibrary.createEntries(entryCount);
+        if (compact) {
+            compactEntries = new CompactEntries();
+            compactEntries.compact(entries);
+        }
+        retainedHeap.retainedBytesPerEntry = (getUsedHeap() - before) / entryCount;
+        return entries;
+    }
+
+    private static long getUsedHeap() {
+        // A single collection may leave garbage behind, e.g., objects that were only reachable from finalizers
+        System.gc();
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,71 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.entry.BibEntry;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a synthetic library into the cache of the library service, including its citation key index.
+ * Before each invocation the modification time of the bib file is advanced by a second, so that the service parses the file again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LibraryLoadBenchmark {
+    private static final String LIBRARY = "synthetic";
+
+    @Param({"1000", "10000", "100000"})
+    public int entryCount;
+
+    private Path workingDirectory;
+    private Path libraryFile;
+    private LibraryService libraryService;
+    private long modificationTime;
+
+    @Setup
+    public void setup() throws IOException {
+        workingDirectory = Files.createTempDirectory("library-load-benchmark");
+        libraryFile = SyntheticLibrary.write(workingDirectory.resolve(LIBRARY + ".bib"), entryCount);
+        libraryService = LibraryService.getInstance(workingDirectory);
+        modificationTime = Files.getLastModifiedTime(libraryFile).toMillis();
+    }
+
+    @Setup(Level.Invocation)
+    public void touchLibrary() throws IOException {
+        Files.setLastModifiedTime(libraryFile, FileTime.fromMillis(modificationTime += 1000));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        libraryService.deleteLibrary(LIBRARY);
+        FileUtils.deleteDirectory(workingDirectory.toFile());
+    }
+
+    @Benchmark
+    public List<BibEntry> loadLibrary() throws IOException {
+        return libraryService.getLibraryEntries(LIBRARY);
+    }
+}
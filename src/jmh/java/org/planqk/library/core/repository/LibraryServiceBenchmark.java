@@ -0,0 +1,76 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.entry.BibEntry;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the operations of the library service on a loaded synthetic library.
+ * Changes are persisted with the configured persistence mode, see LIBRARY_PERSISTENCE_MODE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LibraryServiceBenchmark {
+    private static final String LIBRARY = "synthetic";
+
+    @Param({"1000", "10000", "100000"})
+    public int entryCount;
+
+    private Path workingDirectory;
+    private LibraryService libraryService;
+    private int lookups;
+    private int additions;
+
+    @Setup
+    public void setup() throws IOException {
+        workingDirectory = Files.createTempDirectory("library-service-benchmark");
+        SyntheticLibrary.write(workingDirectory.resolve(LIBRARY + ".bib"), entryCount);
+        libraryService = LibraryService.getInstance(workingDirectory);
+        libraryService.getLibraryEntries(LIBRARY);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        libraryService.deleteLibrary(LIBRARY);
+        FileUtils.deleteDirectory(workingDirectory.toFile());
+    }
+
+    @Benchmark
+    public Optional<BibEntry> lookupEntry() throws IOException {
+        lookups = (lookups + 7919) % entryCount;
+        return libraryService.getLibraryEntryMatchingCiteKey(LIBRARY, SyntheticLibrary.getCitationKey(lookups));
+    }
+
+    /**
+     * Adds an entry and deletes it again, so that the size of the library stays the same across invocations
+     */
+    @Benchmark
+    public boolean addAndDeleteEntry() throws IOException {
+        BibEntry entry = SyntheticLibrary.createEntry(entryCount + additions++);
+        String citationKey = entry.getCitationKey().orElseThrow();
+        libraryService.addEntryToLibrary(LIBRARY, entry);
+        return libraryService.deleteEntryByCiteKey(LIBRARY, citationKey);
+    }
+}
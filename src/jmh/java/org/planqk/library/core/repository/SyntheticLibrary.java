@@ -0,0 +1,83 @@
+package org.planqk.library.core.repository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.InternalField;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+/**
+ * Generates reproducible synthetic libraries for the benchmarks, either as entries or as bib file.
+ * Every tenth entry is a conference paper, the others are journal articles, every third entry has an abstract.
+ */
+public final class SyntheticLibrary {
+
+    private SyntheticLibrary() {
+    }
+
+    /**
+     * @return the citation key of the entry with the given index
+     */
+    public static String getCitationKey(int index) {
+        return "Synthetic" + index;
+    }
+
+    public static BibEntry createEntry(int index) {
+        BibEntry entry;
+        if (index % 10 == 0) {
+            entry = new BibEntry(StandardEntryType.InProceedings)
+                    .withField(StandardField.BOOKTITLE, "Proceedings of the Conference on Quantum Software " + (2000 + index % 20));
+        } else {
+            entry = new BibEntry(StandardEntryType.Article)
+                    .withField(StandardField.JOURNAL, "Journal of Quantum Computing " + (char) ('A' + index % 5))
+                    .withField(StandardField.VOLUME, String.valueOf(1 + index % 40));
+        }
+        entry.withCitationKey(getCitationKey(index))
+             .withField(StandardField.AUTHOR, "Author" + index % 500 + ", First and Coauthor" + index % 97 + ", Second")
+             .withField(StandardField.TITLE, "Synthetic Study Number " + index + " of Algorithms for Quantum Computers")
+             .withField(StandardField.YEAR, String.valueOf(1990 + index % 35))
+             .withField(StandardField.PAGES, (1 + index % 300) + "--" + (11 + index % 300))
+             .withField(StandardField.DOI, "10.1000/synthetic." + index);
+        if (index % 3 == 0) {
+            entry.withField(StandardField.ABSTRACT, "This synthetic abstract describes the study number " + index
+                    + ", which evaluates algorithms for quantum computers on a set of benchmark problems.");
+        }
+        return entry;
+    }
+
+    public static List<BibEntry> createEntries(int entryCount) {
+        List<BibEntry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            entries.add(createEntry(i));
+        }
+        return entries;
+    }
+
+    /**
+     * Writes a bib file containing the entries with index 0 to entryCount - 1.
+     */
+    public static Path write(Path libraryFile, int entryCount) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(libraryFile, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < entryCount; i++) {
+                BibEntry entry = createEntry(i);
+                writer.write("@" + entry.getType().getName() + "{" + entry.getCitationKey().orElseThrow() + ",\n");
+                for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
+                    if (!field.getKey().equals(InternalField.KEY_FIELD)) {
+                        writer.write("  " + field.getKey().getName() + " = {" + field.getValue() + "},\n");
+                    }
+                }
+                writer.write("}\n\n");
+            }
+        }
+        return libraryFile;
+    }
+}
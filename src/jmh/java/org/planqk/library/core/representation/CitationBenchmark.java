@@ -0,0 +1,54 @@
+package org.planqk.library.core.representation;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.entry.BibEntry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.planqk.library.core.repository.SyntheticLibrary;
+
+/**
+ * Measures rendering a single citation with a warm style, without the citation cache of the library service.
+ * The entries differ between invocations, so that the rendering engine does not reuse its previous result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class CitationBenchmark {
+    private static final int ENTRY_COUNT = 1000;
+
+    @Param({"IEEE", "American Psychological Association 6th edition"})
+    public String style;
+
+    private CSLStyleAdapter adapter;
+    private List<BibEntry> entries;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        adapter = CSLStyleAdapter.getInstance();
+        entries = SyntheticLibrary.createEntries(ENTRY_COUNT);
+    }
+
+    @Benchmark
+    public String generateCitation() {
+        next = (next + 1) % ENTRY_COUNT;
+        return adapter.generateCitation(entries.get(next), style);
+    }
+}
@@ -0,0 +1,110 @@
+package org.planqk.library.core.representation;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.logic.citationstyle.CSLAdapter;
+import org.jabref.logic.citationstyle.CitationStyle;
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.BibEntryTypesManager;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time until the first citation is rendered in a fresh JVM, each fork measures a single cold start.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class CitationStyleStartupBenchmark {
+    private static final String STYLE = "IEEE";
+
+    private Path workingDirectory;
+    private Path indexFile;
+    private Path stylesDirectory;
+    private BibEntry entry;
+
+    @Setup
+    public void setup() throws IOException, URISyntaxException {
+        workingDirectory = Files.createTempDirectory("citation-style-benchmark");
+        indexFile = workingDirectory.resolve(CSLStyleIndex.INDEX_FILE);
+        stylesDirectory = CSLStyleAdapter.getStylesDirectory();
+        entry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Saha2018")
+                .withField(StandardField.AUTHOR, "Prashanta Saha and Upulee Kanewala")
+                .withField(StandardField.DATE, "2018-02-20")
+                .withField(StandardField.TITLE, "Fault Detection Effectiveness of Source Test Case Generation Strategies for Metamorphic Testing");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workingDirectory.toFile());
+    }
+
+    /**
+     * Parses all bundled styles before rendering, as registering the styles did before the index
+     */
+    @Benchmark
+    public List<String> discoverAllStyles() throws IOException {
+        CitationStyle style = CitationStyle.discoverCitationStyles().stream()
+                                           .filter(candidate -> STYLE.equals(candidate.getTitle()))
+                                           .findFirst()
+                                           .orElseThrow();
+        return render(style);
+    }
+
+    /**
+     * First start of the server, the index has to be built
+     */
+    @Benchmark
+    public List<String> buildIndex() throws IOException {
+        return render(loadStyle(CSLStyleIndex.build(stylesDirectory)));
+    }
+
+    /**
+     * Restart of the server, the index stored by a previous start is read.
+     * Storing the index during setup loads the XML parser already, which the restart does not need anyway.
+     */
+    @Benchmark
+    public List<String> readStoredIndex(StoredIndex storedIndex) throws IOException {
+        return render(loadStyle(CSLStyleIndex.load(indexFile, stylesDirectory)));
+    }
+
+    @State(Scope.Benchmark)
+    public static class StoredIndex {
+        @Setup
+        public void store(CitationStyleStartupBenchmark benchmark) throws IOException {
+            CSLStyleIndex.load(benchmark.indexFile, benchmark.stylesDirectory);
+        }
+    }
+
+    private CitationStyle loadStyle(CSLStyleIndex index) {
+        return CitationStyle.createCitationStyleFromFile(index.getStyleFiles().get(STYLE)).orElseThrow();
+    }
+
+    private List<String> render(CitationStyle style) throws IOException {
+        return new CSLAdapter().makeBibliography(List.of(entry), style.getSource(), CitationStyleOutputFormat.HTML, new BibDatabaseContext(), new BibEntryTypesManager());
+    }
+}
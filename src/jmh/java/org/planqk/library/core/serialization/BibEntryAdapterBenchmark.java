@@ -0,0 +1,55 @@
+package org.planqk.library.core.serialization;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.entry.BibEntry;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.planqk.library.core.repository.SyntheticLibrary;
+
+/**
+ * Measures writing and reading a JSON array of entries with the Gson adapter, which is used for the library journal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BibEntryAdapterBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int entryCount;
+
+    private Gson gson;
+    private BibEntry[] entries;
+    private String json;
+
+    @Setup
+    public void setup() {
+        gson = new GsonBuilder().registerTypeAdapter(BibEntry.class, new BibEntryAdapter()).create();
+        entries = SyntheticLibrary.createEntries(entryCount).toArray(BibEntry[]::new);
+        json = gson.toJson(entries);
+    }
+
+    @Benchmark
+    public String writeEntries() {
+        return gson.toJson(entries);
+    }
+
+    @Benchmark
+    public BibEntry[] readEntries() {
+        return gson.fromJson(json, BibEntry[].class);
+    }
+}
@@ -0,0 +1,142 @@
+package org.planqk.library.core.serialization;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.logic.TypedBibEntry;
+import org.jabref.model.database.BibDatabaseMode;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.InternalField;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.planqk.library.core.repository.SyntheticLibrary;
+
+/**
+ * Measures writing and reading a JSON array of entries with the token based serializer and deserializer,
+ * compared to the previous implementations building a tree and sorted collections per entry, which are kept as baseline.
+ * Run with {@code -Pjmh.profilers=gc} to compare the allocated bytes per array ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BibEntryJacksonBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int entryCount;
+
+    @Param({"tokens", "tree"})
+    public String implementation;
+
+    private ObjectMapper mapper;
+    private BibEntry[] entries;
+    private String json;
+
+    @Setup
+    public void setup() throws IOException {
+        SimpleModule module = new SimpleModule();
+        if ("tokens".equals(implementation)) {
+            module.addSerializer(new BibEntryJacksonSerializer(BibEntry.class))
+                  .addDeserializer(BibEntry.class, new BibEntryJacksonDeserializer());
+        } else {
+            module.addSerializer(new TreeSerializer())
+                  .addDeserializer(BibEntry.class, new TreeDeserializer());
+        }
+        mapper = new ObjectMapper().registerModule(module);
+
+        entries = SyntheticLibrary.createEntries(entryCount).toArray(BibEntry[]::new);
+        json = mapper.writeValueAsString(entries);
+    }
+
+    @Benchmark
+    public String writeEntries() throws IOException {
+        return mapper.writeValueAsString(entries);
+    }
+
+    @Benchmark
+    public BibEntry[] readEntries() throws IOException {
+        return mapper.readValue(json, BibEntry[].class);
+    }
+
+    /**
+     * The serializer as implemented before writing the fields in a cached order.
+     */
+    private static class TreeSerializer extends StdSerializer<BibEntry> {
+        TreeSerializer() {
+            super(BibEntry.class);
+        }
+
+        @Override
+        public void serialize(BibEntry entry, JsonGenerator writer, SerializerProvider provider) throws IOException {
+            writer.writeStartObject();
+            writer.writeStringField("entrytype", new TypedBibEntry(entry, BibDatabaseMode.BIBTEX).getTypeForDisplay());
+            writer.writeStringField("citekey", entry.getCitationKey().orElse(""));
+            Map<String, String> mapFieldToValue = new HashMap<>();
+            SortedSet<String> sortedFields = new TreeSet<>();
+            for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
+                if (!field.getKey().equals(InternalField.KEY_FIELD)) {
+                    String lowerCaseFieldName = field.getKey().getName().toLowerCase(Locale.US);
+                    sortedFields.add(lowerCaseFieldName);
+                    mapFieldToValue.put(lowerCaseFieldName, field.getValue());
+                }
+            }
+            for (String fieldName : sortedFields) {
+                writer.writeStringField(fieldName, String.valueOf(mapFieldToValue.get(fieldName)).replaceAll("\\r\\n", "\n"));
+            }
+            writer.writeEndObject();
+        }
+    }
+
+    /**
+     * The deserializer as implemented before reading the tokens directly.
+     */
+    private static class TreeDeserializer extends JsonDeserializer<BibEntry> {
+        @Override
+        public BibEntry deserialize(JsonParser in, DeserializationContext ctxt) throws IOException {
+            BibEntry deserializedEntry = new BibEntry();
+            JsonNode node = new ObjectMapper().readTree(in);
+            for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+                String field = it.next();
+                switch (field) {
+                    case "citekey":
+                        deserializedEntry.withCitationKey(node.get(field).asText());
+                        break;
+                    case "entrytype":
+                        deserializedEntry.setType(BibEntryNames.getEntryType(node.get(field).asText()));
+                        break;
+                    default:
+                        deserializedEntry.withField(BibEntryNames.getField(field), node.get(field).asText());
+                }
+            }
+            deserializedEntry.setChanged(true);
+            return deserializedEntry;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.planqk.library.core.serialization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.planqk.library.rest.model.BibEntryDTO;
+
+/**
+ * Compares mapping entries into DTOs with one lookup per DTO field, as the mapper did before, against the
+ * table-driven single pass of {@link BibEntryMapper}. Run with {@code -Pjmh.profilers=gc} to get the allocated
+ * bytes per entry ({@code gc.alloc.rate.norm}), as each operation maps a single entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class BibEntryMapperBenchmark {
+    private static final int ENTRY_COUNT = 1000;
+
+    private final List<BibEntry> entries = new ArrayList<>(ENTRY_COUNT);
+    private final List<BibEntryDTO> dtos = new ArrayList<>(ENTRY_COUNT);
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            BibEntry entry = new BibEntry(StandardEntryType.Article)
+                    .withCitationKey("Author" + i)
+                    .withField(StandardField.AUTHOR, "First Author and Second Author")
+                    .withField(StandardField.TITLE, "A Study of Quantum Algorithms for Problem Number " + i)
+                    .withField(StandardField.JOURNAL, "Journal of Quantum Computing")
+                    .withField(StandardField.VOLUME, String.valueOf(i % 40))
+                    .withField(StandardField.PAGES, "1--10")
+                    .withField(StandardField.YEAR, String.valueOf(1990 + i % 30))
+                    .withField(StandardField.DOI, "10.1000/quantum." + i)
+                    .withField(StandardField.ABSTRACT, "An abstract that is not part of the DTO");
+            entries.add(entry);
+            dtos.add(BibEntryMapper.map(entry));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRY_COUNT)
+    public void mapEntriesPerField(Blackhole blackhole) {
+        for (BibEntry entry : entries) {
+            blackhole.consume(mapPerField(entry));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRY_COUNT)
+    public void mapEntries(Blackhole blackhole) {
+        for (BibEntry entry : entries) {
+            blackhole.consume(BibEntryMapper.map(entry));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRY_COUNT)
+    public void mapDTOs(Blackhole blackhole) {
+        for (BibEntryDTO dto : dtos) {
+            blackhole.consume(BibEntryMapper.map(dto));
+        }
+    }
+
+    /**
+     * The mapping as it was implemented before the mapper became table-driven, kept as baseline.
+     */
+    private static BibEntryDTO mapPerField(BibEntry entry) {
+        BibEntryDTO mappedEntry = new BibEntryDTO();
+        mappedEntry.entryType = entry.getType().getName();
+        entry.getCitationKey().ifPresent(s -> mappedEntry.citationKey = s);
+        entry.getField(StandardField.ADDRESS).ifPresent(s -> mappedEntry.address = s);
+        entry.getField(StandardField.AUTHOR).ifPresent(s -> mappedEntry.author = s);
+        entry.getField(StandardField.BOOKTITLE).ifPresent(s -> mappedEntry.booktitle = s);
+        entry.getField(StandardField.CHAPTER).ifPresent(s -> mappedEntry.chapter = s);
+        entry.getField(StandardField.EDITION).ifPresent(s -> mappedEntry.edition = s);
+        entry.getField(StandardField.EDITOR).ifPresent(s -> mappedEntry.editor = s);
+        entry.getField(StandardField.HOWPUBLISHED).ifPresent(s -> mappedEntry.howpublished = s);
+        entry.getField(StandardField.INSTITUTION).ifPresent(s -> mappedEntry.institution = s);
+        entry.getField(StandardField.JOURNAL).ifPresent(s -> mappedEntry.journal = s);
+        entry.getField(StandardField.MONTH).ifPresent(s -> mappedEntry.month = s);
+        entry.getField(StandardField.NOTE).ifPresent(s -> mappedEntry.note = s);
+        entry.getField(StandardField.NUMBER).ifPresent(s -> mappedEntry.number = s);
+        entry.getField(StandardField.ORGANIZATION).ifPresent(s -> mappedEntry.organization = s);
+        entry.getField(StandardField.PAGES).ifPresent(s -> mappedEntry.pages = s);
+        entry.getField(StandardField.PUBLISHER).ifPresent(s -> mappedEntry.publisher = s);
+        entry.getField(StandardField.SCHOOL).ifPresent(s -> mappedEntry.school = s);
+        entry.getField(StandardField.SERIES).ifPresent(s -> mappedEntry.series = s);
+        entry.getField(StandardField.TITLE).ifPresent(s -> mappedEntry.title = s);
+        entry.getField(StandardField.VOLUME).ifPresent(s -> mappedEntry.volume = s);
+        entry.getField(StandardField.YEAR).ifPresent(s -> mappedEntry.year = s);
+        entry.getField(StandardField.DATE).ifPresent(s -> mappedEntry.date = s);
+        return mappedEntry;
+    }
+}
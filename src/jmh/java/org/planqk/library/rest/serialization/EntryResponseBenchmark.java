@@ -0,0 +1,112 @@
+package org.planqk.library.rest.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.planqk.library.core.repository.EntryPage;
+
+/**
+ * Measures writing the entries of a library as JSON response, indented or compact and with or without gzip.
+ * The size of the response is reported as secondary result <code>responseBytes</code> next to the time.
+ * Indented without gzip is the response the service sent before, compact with gzip the response it sends now to clients
+ * accepting gzip, thus a single run compares both.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EntryResponseBenchmark {
+    @Param({"10000"})
+    public int entryCount;
+
+    @Param({"true", "false"})
+    public boolean prettyPrinted;
+
+    @Param({"true", "false"})
+    public boolean compressed;
+
+    private BibEntryStreamingOutput output;
+
+    @Setup
+    public void setup() throws IOException {
+        List<BibEntry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            entries.add(new BibEntry(StandardEntryType.Article)
+                    .withCitationKey("Author" + i)
+                    .withField(StandardField.AUTHOR, "First Author and Second Author and Third Author")
+                    .withField(StandardField.TITLE, "A Study of Quantum Algorithms for Problem Number " + i)
+                    .withField(StandardField.JOURNAL, "Journal of Quantum Computing")
+                    .withField(StandardField.YEAR, String.valueOf(1990 + i % 30))
+                    .withField(StandardField.DOI, "10.1000/quantum." + i));
+        }
+        BibEntryStreamingOutput json = BibEntryStreamingOutput.json(EntryPage.complete(entries), Set.of());
+        output = prettyPrinted ? json.prettyPrinted() : json;
+    }
+
+    /**
+     * The size of the last response, which does not vary between invocations. It is set instead of summed,
+     * so that the reported value is the size of a single response.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResponseSize {
+        public long responseBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            responseBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public long writeResponse(ResponseSize size) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        if (compressed) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(counter)) {
+                output.write(gzip);
+            }
+        } else {
+            output.write(counter);
+        }
+        size.responseBytes = counter.count;
+        return counter.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+}
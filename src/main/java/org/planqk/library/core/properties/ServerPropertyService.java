@@ -2,21 +2,25 @@ package org.planqk.library.core.properties;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Properties;
 
+import org.planqk.library.core.repository.PersistenceMode;
+import org.planqk.library.core.repository.ReadMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class ServerPropertyService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerPropertyService.class);
-    private static ServerPropertyService instance;
+    private static volatile ServerPropertyService instance;
     private final Properties serverProperties;
 
     private ServerPropertyService() {
         serverProperties = loadProperties();
     }
 
-    public static ServerPropertyService getInstance() {
+    public static synchronized ServerPropertyService getInstance() {
         if (instance == null) {
             instance = new ServerPropertyService();
         }
@@ -38,10 +42,91 @@ public class ServerPropertyService {
             LOGGER.info("Working directory was not found in either the properties or the environment variables, falling back to default location: {}", System.getProperty("user.home") + "/planqk-library");
             properties.setProperty("workingDirectory", System.getProperty("user.home") + "/planqk-library");
         }
+        setFromEnvironment(properties, "persistenceMode", "LIBRARY_PERSISTENCE_MODE", PersistenceMode.DIRECT.name());
+        setFromEnvironment(properties, "compactionInterval", "LIBRARY_COMPACTION_INTERVAL", "60");
+        setFromEnvironment(properties, "snapshots", "LIBRARY_SNAPSHOTS", "false");
+        setFromEnvironment(properties, "readMode", "LIBRARY_READ_MODE", ReadMode.CACHED.name());
+        setFromEnvironment(properties, "citationCacheSize", "LIBRARY_CITATION_CACHE_SIZE", "10000");
+        setFromEnvironment(properties, "citationEnginesPerStyle", "LIBRARY_CITATION_ENGINES_PER_STYLE", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        setFromEnvironment(properties, "citationEngineIdleTimeout", "LIBRARY_CITATION_ENGINE_IDLE_TIMEOUT", "300");
+        setFromEnvironment(properties, "compressionThreshold", "LIBRARY_COMPRESSION_THRESHOLD", "1024");
         return properties;
     }
 
+    private void setFromEnvironment(Properties properties, String property, String environmentVariable, String defaultValue) {
+        String value = System.getenv(environmentVariable);
+        if (value == null || value.isBlank()) {
+            properties.setProperty(property, defaultValue);
+        } else {
+            LOGGER.info("Environment Variable {} found, using {}", environmentVariable, value);
+            properties.setProperty(property, value.trim());
+        }
+    }
+
     public Path getWorkingDirectory() {
         return Paths.get(serverProperties.getProperty("workingDirectory"));
     }
+
+    /**
+     * Determined by the environment variable LIBRARY_PERSISTENCE_MODE, either DIRECT (default) or JOURNAL
+     */
+    public PersistenceMode getPersistenceMode() {
+        return PersistenceMode.valueOf(serverProperties.getProperty("persistenceMode").toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_COMPACTION_INTERVAL, the seconds between two compactions of the library journals,
+     * 0 to compact the journals only when the service starts
+     *
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public Duration getCompactionInterval() {
+        Duration interval = Duration.ofSeconds(Long.parseLong(serverProperties.getProperty("compactionInterval")));
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("LIBRARY_COMPACTION_INTERVAL has to be 0 or a positive number of seconds, but is " + interval.getSeconds());
+        }
+        return interval;
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_SNAPSHOTS, whether binary snapshots of the libraries are kept to speed up loading them
+     */
+    public boolean isSnapshotsEnabled() {
+        return Boolean.parseBoolean(serverProperties.getProperty("snapshots"));
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_READ_MODE, either CACHED (default) or INDEXED
+     */
+    public ReadMode getReadMode() {
+        return ReadMode.valueOf(serverProperties.getProperty("readMode").toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_CITATION_CACHE_SIZE, the maximum number of rendered citations kept in memory
+     */
+    public int getCitationCacheSize() {
+        return Integer.parseInt(serverProperties.getProperty("citationCacheSize"));
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_CITATION_ENGINES_PER_STYLE, the maximum number of citations rendered concurrently in the same style
+     */
+    public int getCitationEnginesPerStyle() {
+        return Integer.parseInt(serverProperties.getProperty("citationEnginesPerStyle"));
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_CITATION_ENGINE_IDLE_TIMEOUT, the seconds after which an unused citation engine is discarded
+     */
+    public Duration getCitationEngineIdleTimeout() {
+        return Duration.ofSeconds(Long.parseLong(serverProperties.getProperty("citationEngineIdleTimeout")));
+    }
+
+    /**
+     * Determined by the environment variable LIBRARY_COMPRESSION_THRESHOLD, the size in bytes above which responses are compressed, negative to disable compression
+     */
+    public int getCompressionThreshold() {
+        return Integer.parseInt(serverProperties.getProperty("compressionThreshold"));
+    }
 }
@@ -0,0 +1,110 @@
+package org.planqk.library.core.repository;
+
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * A parsed library together with the file state it was read from.
+ * The version is increased every time the content of the library changes.
+ * Entries have to be added and removed through this class, so that the citation key index stays in sync with the database.
+ * The entries are kept compact using a dictionary owned by the library, see {@link CompactEntries}.
+ */
+class CachedLibrary {
+    private final BibDatabaseContext context;
+    private final CitationKeyIndex citationKeyIndex;
+    private final CompactEntries compactEntries = new CompactEntries();
+    private volatile FileTime lastModified;
+    private volatile long size;
+    private volatile long version;
+    private volatile Instant lastChanged;
+
+    CachedLibrary(BibDatabaseContext context, BasicFileAttributes attributes, long version) {
+        this.context = context;
+        compactEntries.compact(context.getDatabase().getEntries());
+        this.citationKeyIndex = new CitationKeyIndex(context.getDatabase().getEntries());
+        this.lastModified = attributes.lastModifiedTime();
+        this.size = attributes.size();
+        this.version = version;
+        this.lastChanged = attributes.lastModifiedTime().toInstant();
+    }
+
+    BibDatabaseContext getContext() {
+        return context;
+    }
+
+    CitationKeyIndex getCitationKeyIndex() {
+        return citationKeyIndex;
+    }
+
+    Optional<BibEntry> getEntry(String citationKey) {
+        return citationKeyIndex.get(citationKey);
+    }
+
+    void insertEntry(BibEntry entry) {
+        compactEntries.compact(entry);
+        context.getDatabase().insertEntry(entry);
+        citationKeyIndex.add(entry);
+    }
+
+    void removeEntry(BibEntry entry) {
+        context.getDatabase().removeEntry(entry);
+        citationKeyIndex.remove(entry);
+    }
+
+    void replaceEntry(BibEntry currentEntry, BibEntry updatedEntry) {
+        removeEntry(currentEntry);
+        insertEntry(updatedEntry);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the modification time of the file when it was last read or written by the service
+     */
+    FileTime getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the size of the file when it was last read or written by the service
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * @return true if the cached content still reflects the file with the given attributes
+     */
+    boolean matches(BasicFileAttributes attributes) {
+        return attributes.size() == size && attributes.lastModifiedTime().equals(lastModified);
+    }
+
+    /**
+     * @return the time of the last change of the content, either by the service or by writing the file
+     */
+    Instant getLastChanged() {
+        return lastChanged;
+    }
+
+    /**
+     * Records a change of the content that was not written to the file.
+     */
+    void setVersion(long version) {
+        this.version = version;
+        this.lastChanged = Instant.now();
+    }
+
+    void update(BasicFileAttributes attributes, long version) {
+        this.lastModified = attributes.lastModifiedTime();
+        this.size = attributes.size();
+        this.version = version;
+        this.lastChanged = attributes.lastModifiedTime().toInstant();
+    }
+}
@@ -0,0 +1,154 @@
+package org.planqk.library.core.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * Maps citation keys to the entries of a library using them.
+ * Multiple entries may share a citation key in a bib file, the first entry in library order is returned for such a key.
+ * <p>
+ * Besides the hash based lookup, the index keeps the entries ordered by citation key to serve pages of a library.
+ * Each entry is stored on its own at its {@link Position}, so that adding or removing an entry does not copy the other
+ * entries using the same key, e.g., all entries without citation key. Those are only part of the ordered view, where they come first.
+ */
+class CitationKeyIndex {
+    private static final String MISSING_KEY = "";
+
+    private final Map<String, BibEntry> firstEntries = new ConcurrentHashMap<>();
+    private final NavigableMap<Position, BibEntry> orderedEntries = new ConcurrentSkipListMap<>();
+    // The position of each entry by identity, as entries are compared by content
+    private final Map<BibEntry, Position> positions = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /**
+     * The position of an entry in citation key order. Entries sharing a citation key are ordered by the time they were
+     * added to the index, which is library order for the entries of a loaded library.
+     */
+    static final class Position implements Comparable<Position> {
+        private final String citationKey;
+        private final long sequence;
+
+        Position(String citationKey, long sequence) {
+            this.citationKey = citationKey;
+            this.sequence = sequence;
+        }
+
+        String getCitationKey() {
+            return citationKey;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int byKey = citationKey.compareTo(other.citationKey);
+            return byKey != 0 ? byKey : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Position)) {
+                return false;
+            }
+            Position other = (Position) o;
+            return sequence == other.sequence && citationKey.equals(other.citationKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * citationKey.hashCode() + Long.hashCode(sequence);
+        }
+    }
+
+    CitationKeyIndex(Collection<BibEntry> entries) {
+        entries.forEach(this::add);
+    }
+
+    /**
+     * @return the first entry of the library with the given citation key
+     */
+    Optional<BibEntry> get(String citationKey) {
+        return Optional.ofNullable(firstEntries.get(citationKey));
+    }
+
+    boolean contains(String citationKey) {
+        return firstEntries.containsKey(citationKey);
+    }
+
+    /**
+     * @param citationKey the citation key, or the empty string for entries without citation key
+     * @return all entries using the citation key in library order
+     */
+    List<BibEntry> getEntries(String citationKey) {
+        return new ArrayList<>(getGroup(citationKey).values());
+    }
+
+    /**
+     * @return all entries in citation key order
+     */
+    NavigableMap<Position, BibEntry> getOrderedEntries() {
+        return Collections.unmodifiableNavigableMap(orderedEntries);
+    }
+
+    void add(BibEntry entry) {
+        Optional<String> citationKey = entry.getCitationKey();
+        Position position = new Position(citationKey.orElse(MISSING_KEY), nextSequence.getAndIncrement());
+        positions.put(entry, position);
+        orderedEntries.put(position, entry);
+        citationKey.ifPresent(key -> firstEntries.putIfAbsent(key, entry));
+    }
+
+    void remove(BibEntry entry) {
+        Position position = positions.remove(entry);
+        if (position == null) {
+            return;
+        }
+        orderedEntries.remove(position);
+        String citationKey = position.citationKey;
+        if (!citationKey.equals(MISSING_KEY) && firstEntries.get(citationKey) == entry) {
+            Map.Entry<Position, BibEntry> first = getGroup(citationKey).firstEntry();
+            if (first == null) {
+                firstEntries.remove(citationKey);
+            } else {
+                firstEntries.put(citationKey, first.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return all citation keys that are used by more than one entry
+     */
+    Set<String> getDuplicateKeys() {
+        Set<String> duplicateKeys = new HashSet<>();
+        Position previous = null;
+        for (Position position : orderedEntries.keySet()) {
+            if (previous != null && !position.citationKey.equals(MISSING_KEY) && previous.citationKey.equals(position.citationKey)) {
+                duplicateKeys.add(position.citationKey);
+            }
+            previous = position;
+        }
+        return duplicateKeys;
+    }
+
+    private NavigableMap<Position, BibEntry> getGroup(String citationKey) {
+        return orderedEntries.subMap(new Position(citationKey, Long.MIN_VALUE), true, new Position(citationKey, Long.MAX_VALUE), true);
+    }
+}
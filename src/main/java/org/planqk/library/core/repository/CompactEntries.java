@@ -0,0 +1,147 @@
+package org.planqk.library.core.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.StandardField;
+
+/**
+ * Reduces the heap used by cached entries, which is dominated by values repeated in many entries, e.g., journal names or publishers.
+ * <p>
+ * The values of fields with few distinct values are dictionary-encoded: all entries reference a single instance per value,
+ * instead of each entry keeping its own copy created by the parser. Fields with mostly unique values, such as authors
+ * or titles, are not encoded, as the dictionary would only add to their memory use.
+ * <p>
+ * Each cached library has its own dictionary, which is released together with the library. The dictionary is not
+ * thread-safe, entries are compacted while the library is loaded or while its write lock is held.
+ */
+final class CompactEntries {
+    /**
+     * Fields whose values are typically shared by many entries of a library
+     */
+    private static final Set<Field> DICTIONARY_FIELDS = Set.of(
+            StandardField.ADDRESS,
+            StandardField.EDITION,
+            StandardField.INSTITUTION,
+            StandardField.JOURNAL,
+            StandardField.JOURNALTITLE,
+            StandardField.LANGUAGE,
+            StandardField.LOCATION,
+            StandardField.MONTH,
+            StandardField.ORGANIZATION,
+            StandardField.OWNER,
+            StandardField.PUBLISHER,
+            StandardField.PUBSTATE,
+            StandardField.SCHOOL,
+            StandardField.SERIES,
+            StandardField.TYPE,
+            StandardField.VOLUME,
+            StandardField.YEAR
+    );
+    /**
+     * Bounds the dictionary of a library, which keeps values of removed entries until the library is released,
+     * beyond the bound entries keep their own copies of new values
+     */
+    private static final int MAX_DICTIONARY_SIZE = 10_000;
+    // Approximation of a string without its content and of a node of the field map, assuming compressed references
+    private static final int STRING_OVERHEAD = 40;
+    private static final int FIELD_OVERHEAD = 32;
+
+    private final Map<String, String> dictionary = new HashMap<>();
+
+    /**
+     * Replaces the values of dictionary-encoded fields by their shared instance. The content of the entry does not change,
+     * thus it is still written using its parsed serialization.
+     */
+    void compact(BibEntry entry) {
+        Map<Field, String> sharedValues = null;
+        for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
+            if (!DICTIONARY_FIELDS.contains(field.getKey())) {
+                continue;
+            }
+            String sharedValue = getSharedValue(field.getValue());
+            if (sharedValue != field.getValue()) {
+                if (sharedValues == null) {
+                    sharedValues = new HashMap<>();
+                }
+                sharedValues.put(field.getKey(), sharedValue);
+            }
+        }
+        if (sharedValues == null) {
+            return;
+        }
+        boolean changed = entry.hasChanged();
+        sharedValues.forEach((field, value) -> {
+            // Setting an equal value is ignored by the entry, thus the field has to be cleared first
+            entry.clearField(field);
+            entry.setField(field, value);
+        });
+        entry.setChanged(changed);
+    }
+
+    void compact(Collection<BibEntry> entries) {
+        for (BibEntry entry : entries) {
+            compact(entry);
+        }
+    }
+
+    private String getSharedValue(String value) {
+        String sharedValue = dictionary.get(value);
+        if (sharedValue != null) {
+            return sharedValue;
+        }
+        if (dictionary.size() < MAX_DICTIONARY_SIZE) {
+            dictionary.put(value, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return the number of distinct values in the dictionary
+     */
+    int getDictionarySize() {
+        return dictionary.size();
+    }
+
+    /**
+     * Estimates the heap used by the fields of the entries, counting each shared value once
+     *
+     * @return the estimated bytes per entry, 0 if there are no entries
+     */
+    static long estimateBytesPerEntry(Collection<BibEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Set<String> sharedValues = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = 0;
+        for (BibEntry entry : entries) {
+            for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
+                bytes += FIELD_OVERHEAD;
+                if (!DICTIONARY_FIELDS.contains(field.getKey()) || sharedValues.add(field.getValue())) {
+                    bytes += estimateBytes(field.getValue());
+                }
+            }
+        }
+        return bytes / entries.size();
+    }
+
+    /**
+     * Strings containing only Latin-1 characters are stored using one byte per character, others using two
+     */
+    private static long estimateBytes(String value) {
+        int bytesPerCharacter = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerCharacter = 2;
+                break;
+            }
+        }
+        return STRING_OVERHEAD + ((long) value.length() * bytesPerCharacter + 7) / 8 * 8;
+    }
+}
@@ -9,7 +9,8 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 
 public class CrawlTask implements Runnable {
     private final Crawler crawler;
-    private TaskStatus status;
+    // A task is considered running from its creation on, so that it is not started twice
+    private volatile TaskStatus status = TaskStatus.RUNNING;
 
     public CrawlTask(Crawler crawler) {
         this.crawler = crawler;
@@ -21,7 +22,6 @@ public class CrawlTask implements Runnable {
 
     @Override
     public void run() {
-        status = TaskStatus.RUNNING;
         try {
             crawler.performCrawl();
         } catch (IOException | GitAPIException | SaveException e) {
@@ -0,0 +1,36 @@
+package org.planqk.library.core.repository;
+
+import java.util.Optional;
+
+/**
+ * Outcome of inserting a single entry as part of a batch.
+ */
+public class EntryInsertResult {
+    private final String citationKey;
+    private final String error;
+
+    private EntryInsertResult(String citationKey, String error) {
+        this.citationKey = citationKey;
+        this.error = error;
+    }
+
+    public static EntryInsertResult success(String citationKey) {
+        return new EntryInsertResult(citationKey, null);
+    }
+
+    public static EntryInsertResult failure(String citationKey, String error) {
+        return new EntryInsertResult(citationKey, error);
+    }
+
+    public String getCitationKey() {
+        return citationKey;
+    }
+
+    public boolean isSuccessful() {
+        return error == null;
+    }
+
+    public Optional<String> getError() {
+        return Optional.ofNullable(error);
+    }
+}
@@ -0,0 +1,89 @@
+package org.planqk.library.core.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * A page of entries in citation key order.
+ * The cursor of the next page encodes the position of the last entry of this page, i.e., its citation key and the order
+ * of the entry among the entries sharing this key. Thus, it stays valid if entries are added or removed concurrently.
+ * Only if a library is reloaded between two pages, entries sharing the last citation key of a page may be repeated or skipped.
+ * For the merged entries of all libraries, this applies to the entries of libraries that changed between two pages.
+ */
+public class EntryPage {
+    // Separates the order of the entry from its citation key, which may contain any character
+    private static final char CURSOR_SEPARATOR = ':';
+
+    private final List<BibEntry> entries;
+    private final String nextCursor;
+
+    private EntryPage(List<BibEntry> entries, String nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return a single page containing all given entries
+     */
+    public static EntryPage complete(List<BibEntry> entries) {
+        return new EntryPage(entries, null);
+    }
+
+    /**
+     * Collects up to limit entries following the cursor. Entries sharing a citation key, e.g., all entries without
+     * citation key, may be split across pages.
+     *
+     * @param orderedEntries entries in citation key order
+     * @param cursor         the cursor returned with the previous page, empty for the first page
+     * @throws IllegalArgumentException if the cursor is malformed or the limit is not positive
+     */
+    static EntryPage of(NavigableMap<CitationKeyIndex.Position, BibEntry> orderedEntries, Optional<String> cursor, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The page size has to be positive.");
+        }
+        NavigableMap<CitationKeyIndex.Position, BibEntry> remainingEntries = cursor.isPresent() ? orderedEntries.tailMap(decodeCursor(cursor.get()), false) : orderedEntries;
+        List<BibEntry> entries = new ArrayList<>(Math.min(limit, 1024));
+        CitationKeyIndex.Position lastPosition = null;
+        Iterator<Map.Entry<CitationKeyIndex.Position, BibEntry>> iterator = remainingEntries.entrySet().iterator();
+        while (entries.size() < limit && iterator.hasNext()) {
+            Map.Entry<CitationKeyIndex.Position, BibEntry> positionAndEntry = iterator.next();
+            entries.add(positionAndEntry.getValue());
+            lastPosition = positionAndEntry.getKey();
+        }
+        return new EntryPage(entries, iterator.hasNext() ? encodeCursor(lastPosition) : null);
+    }
+
+    public List<BibEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the cursor of the following page, empty if this is the last page
+     */
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    private static String encodeCursor(CitationKeyIndex.Position position) {
+        String cursor = position.getSequence() + CURSOR_SEPARATOR + position.getCitationKey();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CitationKeyIndex.Position decodeCursor(String cursor) {
+        // Throws an IllegalArgumentException for malformed cursors, e.g., a NumberFormatException
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(CURSOR_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new CitationKeyIndex.Position(decoded.substring(separator + 1), Long.parseLong(decoded.substring(0, separator)));
+    }
+}
@@ -0,0 +1,229 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jabref.logic.importer.OpenDatabase;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.util.FileUpdateMonitor;
+import org.jabref.preferences.JabRefPreferences;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps parsed libraries in memory, so that requests do not have to re-parse the bib file every time.
+ * A cached library is reused as long as modification time and size of its file did not change since it was loaded or last written by the service.
+ */
+class LibraryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibraryCache.class);
+    private final Map<Path, CachedLibrary> libraries = new ConcurrentHashMap<>();
+    // The libraries that are currently loaded, so that concurrent requests for the same library share the load
+    private final Map<Path, CompletableFuture<CachedLibrary>> loads = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    // Distinguishes the versions of this cache from the versions issued before a restart
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    // Only set if the libraries are persisted using a journal
+    private final LibraryJournal journal;
+    // Only set if snapshots of the libraries are kept
+    private final LibrarySnapshot snapshot;
+    private final FileUpdateMonitor fileUpdateMonitor;
+
+    /**
+     * @param journal           replayed when a library is loaded, null if changes are not journaled
+     * @param snapshot          used to load libraries without parsing them and taken whenever a library is parsed, may be null
+     * @param fileUpdateMonitor handed to the parser, which uses it to watch files referenced by libraries
+     */
+    LibraryCache(LibraryJournal journal, LibrarySnapshot snapshot, FileUpdateMonitor fileUpdateMonitor) {
+        this.journal = journal;
+        this.snapshot = snapshot;
+        this.fileUpdateMonitor = fileUpdateMonitor;
+    }
+
+    /**
+     * Returns the cached library for the given path, (re-)loading it if the file changed in the meantime.
+     * Concurrent requests for a library that is not cached wait for a single load instead of each parsing the library.
+     *
+     * @throws java.nio.file.NoSuchFileException if the library does not exist
+     */
+    CachedLibrary get(Path libraryPath) throws IOException {
+        // Read the attributes before parsing, so that a concurrent external change leads to a reload on the next access
+        BasicFileAttributes attributes = Files.readAttributes(libraryPath, BasicFileAttributes.class);
+        CachedLibrary cached = libraries.get(libraryPath);
+        if (cached != null && cached.matches(attributes)) {
+            return cached;
+        }
+        CompletableFuture<CachedLibrary> load = new CompletableFuture<>();
+        CompletableFuture<CachedLibrary> runningLoad = loads.putIfAbsent(libraryPath, load);
+        if (runningLoad != null) {
+            return awaitLoad(runningLoad);
+        }
+        try {
+            // Another load may have completed in the meantime
+            cached = libraries.get(libraryPath);
+            CachedLibrary loaded = cached != null && cached.matches(attributes) ? cached : loadLibrary(libraryPath, attributes);
+            load.complete(loaded);
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(libraryPath, load);
+        }
+    }
+
+    private CachedLibrary loadLibrary(Path libraryPath, BasicFileAttributes attributes) throws IOException {
+        BibDatabaseContext context = load(libraryPath, attributes);
+        CachedLibrary loaded = new CachedLibrary(context, attributes, versions.incrementAndGet());
+        if (journal != null) {
+            // Changes that were not yet compacted into the bib file
+            journal.replay(libraryPath, loaded);
+        }
+        Set<String> duplicateKeys = loaded.getCitationKeyIndex().getDuplicateKeys();
+        if (!duplicateKeys.isEmpty()) {
+            LOGGER.warn("Library {} contains citation keys used by multiple entries: {}", libraryPath, duplicateKeys);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            // Scans all fields of all entries, thus only estimated if requested
+            List<BibEntry> entries = loaded.getContext().getDatabase().getEntries();
+            LOGGER.debug("Loaded library {} with {} entries, their fields use about {} bytes per entry", libraryPath, entries.size(), CompactEntries.estimateBytesPerEntry(entries));
+        }
+        libraries.put(libraryPath, loaded);
+        return loaded;
+    }
+
+    private static CachedLibrary awaitLoad(CompletableFuture<CachedLibrary> load) throws IOException {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the library to be loaded");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Could not load library", e.getCause());
+        }
+    }
+
+    /**
+     * @return the cached library, if it is cached and still reflects its file
+     */
+    Optional<CachedLibrary> getIfCached(Path libraryPath) throws IOException {
+        CachedLibrary cached = libraries.get(libraryPath);
+        if (cached == null || !cached.matches(Files.readAttributes(libraryPath, BasicFileAttributes.class))) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Has to be called after the service wrote the cached library back to its file.
+     * The snapshot of the library no longer matches the file afterwards, it is taken again by {@link #takeSnapshot(Path, CachedLibrary, long)}.
+     */
+    void written(Path libraryPath, CachedLibrary library) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(libraryPath, BasicFileAttributes.class);
+        library.update(attributes, versions.incrementAndGet());
+    }
+
+    /**
+     * Takes a snapshot of a library the service wrote, so that it is not parsed on the next start.
+     * Serializing a large library takes a while, thus the caller should not hold the write lock of the library,
+     * but its read lock, so that the library does not change while it is serialized.
+     *
+     * @param version the version of the library when it was written, no snapshot is taken if it changed since
+     */
+    void takeSnapshot(Path libraryPath, CachedLibrary library, long version) throws IOException {
+        if (snapshot == null || library.getVersion() != version || libraries.get(libraryPath) != library) {
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(libraryPath, BasicFileAttributes.class);
+        if (library.matches(attributes)) {
+            takeSnapshot(libraryPath, library.getContext(), attributes);
+        }
+    }
+
+    /**
+     * Loads the library from its snapshot if possible, otherwise parses the bib file and takes a snapshot of the result
+     */
+    private BibDatabaseContext load(Path libraryPath, BasicFileAttributes attributes) throws IOException {
+        if (snapshot != null) {
+            Optional<BibDatabaseContext> context = snapshot.read(libraryPath, attributes);
+            if (context.isPresent()) {
+                LOGGER.info("Loaded library {} from its snapshot", libraryPath);
+                return context.get();
+            }
+        }
+        BibDatabaseContext context = OpenDatabase.loadDatabase(libraryPath, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), fileUpdateMonitor)
+                                                 .getDatabaseContext();
+        takeSnapshot(libraryPath, context, attributes);
+        return context;
+    }
+
+    /**
+     * Failing to take a snapshot is not fatal, the outdated snapshot is removed and the library is parsed again on the next load
+     */
+    private void takeSnapshot(Path libraryPath, BibDatabaseContext context, BasicFileAttributes attributes) {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.write(libraryPath, context, attributes);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not take a snapshot of library {}", libraryPath, e);
+            try {
+                snapshot.delete(libraryPath);
+            } catch (IOException deleteException) {
+                LOGGER.warn("Could not remove the outdated snapshot of library {}", libraryPath, deleteException);
+            }
+        }
+    }
+
+    /**
+     * Has to be called after the service changed the cached library without writing its file.
+     */
+    void changed(CachedLibrary library) {
+        library.setVersion(versions.incrementAndGet());
+    }
+
+    LibraryVersion getVersion(CachedLibrary library) {
+        return new LibraryVersion(epoch + "-" + library.getVersion(), library.getLastChanged());
+    }
+
+    void invalidate(Path libraryPath) {
+        libraries.remove(libraryPath);
+    }
+
+    /**
+     * Drops the cached library if it no longer reflects its file, e.g. after it was modified externally.
+     *
+     * @return true if the library is not cached (anymore)
+     */
+    boolean invalidateIfChanged(Path libraryPath) throws IOException {
+        CachedLibrary cached = libraries.get(libraryPath);
+        if (cached != null && Files.exists(libraryPath) && cached.matches(Files.readAttributes(libraryPath, BasicFileAttributes.class))) {
+            return false;
+        }
+        libraries.remove(libraryPath);
+        return true;
+    }
+
+    Set<Path> getCachedLibraryPaths() {
+        return Set.copyOf(libraries.keySet());
+    }
+}
@@ -0,0 +1,90 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The libraries of a working directory with their statistics, kept in memory so that listing them does not require
+ * access to the file system. The directory is scanned once, afterwards the service reports its own changes and the
+ * changes reported by the file update monitor.
+ * <p>
+ * Statistics are only known for libraries that were loaded at least once.
+ */
+class LibraryCatalog {
+    private final Path directory;
+    private final Charset defaultEncoding;
+    private final NavigableSet<Path> libraries = new ConcurrentSkipListSet<>();
+    private final Map<Path, LibraryInfo> infos = new ConcurrentHashMap<>();
+    private volatile boolean scanned;
+
+    LibraryCatalog(Path directory, Charset defaultEncoding) {
+        this.directory = directory;
+        this.defaultEncoding = defaultEncoding;
+    }
+
+    /**
+     * @return the paths of all libraries ordered by name
+     */
+    List<Path> getLibraryPaths() throws IOException {
+        if (!scanned) {
+            scan();
+        }
+        return List.copyOf(libraries);
+    }
+
+    Optional<LibraryInfo> getInfo(Path libraryPath) {
+        return Optional.ofNullable(infos.get(libraryPath));
+    }
+
+    /**
+     * Replaces the set of known libraries by the libraries currently in the directory.
+     */
+    synchronized void scan() throws IOException {
+        List<Path> currentLibraries;
+        try (Stream<Path> files = Files.list(directory)) {
+            currentLibraries = files.filter(file -> file.getFileName().toString().endsWith(".bib"))
+                                    .filter(file -> !Files.isDirectory(file))
+                                    .collect(Collectors.toList());
+        }
+        libraries.retainAll(currentLibraries);
+        libraries.addAll(currentLibraries);
+        infos.keySet().retainAll(currentLibraries);
+        scanned = true;
+    }
+
+    void added(Path libraryPath) {
+        libraries.add(libraryPath);
+    }
+
+    void removed(Path libraryPath) {
+        libraries.remove(libraryPath);
+        infos.remove(libraryPath);
+    }
+
+    /**
+     * Records the statistics of the given library, unless statistics of a later version are known already.
+     */
+    void update(Path libraryPath, CachedLibrary library) {
+        if (getInfo(libraryPath).map(info -> info.getVersion() == library.getVersion()).orElse(false)) {
+            return;
+        }
+        LibraryInfo info = new LibraryInfo(libraryPath.getFileName().toString(),
+                library.getContext().getDatabase().getEntryCount(),
+                library.getSize(),
+                library.getLastModified().toInstant(),
+                library.getContext().getMetaData().getEncoding().orElse(defaultEncoding),
+                library.getVersion());
+        libraries.add(libraryPath);
+        infos.merge(libraryPath, info, (current, updated) -> updated.getVersion() >= current.getVersion() ? updated : current);
+    }
+}
@@ -0,0 +1,55 @@
+package org.planqk.library.core.repository;
+
+import java.nio.charset.Charset;
+import java.time.Instant;
+
+/**
+ * Statistics of a library, as kept by the {@link LibraryCatalog}.
+ */
+public class LibraryInfo {
+    private final String libraryName;
+    private final int entryCount;
+    private final long size;
+    private final Instant lastModified;
+    private final Charset encoding;
+    private final long version;
+
+    LibraryInfo(String libraryName, int entryCount, long size, Instant lastModified, Charset encoding, long version) {
+        this.libraryName = libraryName;
+        this.entryCount = entryCount;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.encoding = encoding;
+        this.version = version;
+    }
+
+    public String getLibraryName() {
+        return libraryName;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the size of the bib file in bytes, changes that are only journaled are not included
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public Charset getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return the version of the library content, increases with every change
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,192 @@
+package org.planqk.library.core.repository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.types.EntryTypeFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.planqk.library.core.serialization.BibEntryAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of the changes applied to a library since it was last written to its bib file.
+ * The journal of a library is stored next to it as hidden file, each line holds one change as JSON object.
+ * <p>
+ * Replaying a journal is idempotent: an added entry replaces an entry with the same citation key, and removing a
+ * citation key that is not part of the library does nothing. Thus, a journal that was not truncated after its
+ * changes were written to the bib file can safely be replayed again.
+ */
+class LibraryJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibraryJournal.class);
+    static final String JOURNAL_EXTENSION = ".journal";
+    private static final String OPERATION = "op";
+    private static final String PUT = "put";
+    private static final String REMOVE = "remove";
+    private static final String TYPE = "type";
+    private static final String ENTRY = "entry";
+    private static final String CITATION_KEY = "citekey";
+    private static final String ENTRY_TYPE = "entrytype";
+
+    private final Gson gson = new GsonBuilder().registerTypeAdapter(BibEntry.class, new BibEntryAdapter()).create();
+
+    /**
+     * A single change of a library
+     */
+    static class Change {
+        private final BibEntry addedEntry;
+        private final String removedCitationKey;
+
+        private Change(BibEntry addedEntry, String removedCitationKey) {
+            this.addedEntry = addedEntry;
+            this.removedCitationKey = removedCitationKey;
+        }
+
+        static Change added(BibEntry entry) {
+            return new Change(entry, null);
+        }
+
+        static Change removed(String citationKey) {
+            return new Change(null, citationKey);
+        }
+
+        /**
+         * @return the citation key of the added or removed entry, empty if the added entry has none
+         */
+        String getCitationKey() {
+            return addedEntry != null ? addedEntry.getCitationKey().orElse("") : removedCitationKey;
+        }
+    }
+
+    static Path getJournalPath(Path libraryPath) {
+        return libraryPath.resolveSibling("." + libraryPath.getFileName() + JOURNAL_EXTENSION);
+    }
+
+    /**
+     * @return the paths of all libraries in the directory that have a journal
+     */
+    static List<Path> findJournaledLibraries(Path directory) throws IOException {
+        List<Path> libraries = new ArrayList<>();
+        try (DirectoryStream<Path> journals = Files.newDirectoryStream(directory, ".*.bib" + JOURNAL_EXTENSION)) {
+            for (Path journal : journals) {
+                String journalName = journal.getFileName().toString();
+                libraries.add(journal.resolveSibling(journalName.substring(1, journalName.length() - JOURNAL_EXTENSION.length())));
+            }
+        }
+        return libraries;
+    }
+
+    boolean hasChanges(Path libraryPath) throws IOException {
+        Path journalPath = getJournalPath(libraryPath);
+        return Files.exists(journalPath) && Files.size(journalPath) > 0;
+    }
+
+    /**
+     * Durably appends the changes to the journal of the library. All changes are written with a single write.
+     */
+    void append(Path libraryPath, List<Change> changes) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Change change : changes) {
+            lines.append(gson.toJson(toJson(change))).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(getJournalPath(libraryPath), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            // Metadata such as the modification time is not required to replay the journal
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Applies all changes recorded in the journal to the given library.
+     * A line that cannot be parsed ends the replay, as it can only be the result of an interrupted append.
+     */
+    void replay(Path libraryPath, CachedLibrary library) throws IOException {
+        Path journalPath = getJournalPath(libraryPath);
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    apply(JsonParser.parseString(line).getAsJsonObject(), library);
+                    replayed++;
+                } catch (JsonParseException | IllegalStateException e) {
+                    LOGGER.warn("Stopped replaying journal {} at malformed change {}", journalPath, replayed + 1, e);
+                    break;
+                }
+            }
+        }
+        LOGGER.info("Replayed {} changes from journal {}", replayed, journalPath);
+    }
+
+    /**
+     * Empties the journal, has to be called after the library was written to its bib file
+     */
+    void truncate(Path libraryPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(getJournalPath(libraryPath), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            channel.force(true);
+        }
+    }
+
+    void delete(Path libraryPath) throws IOException {
+        Files.deleteIfExists(getJournalPath(libraryPath));
+    }
+
+    private JsonObject toJson(Change change) {
+        JsonObject json = new JsonObject();
+        if (change.addedEntry != null) {
+            json.addProperty(OPERATION, PUT);
+            // The entry type is stored by its name, as the display name written by the adapter cannot be parsed for all types
+            json.addProperty(TYPE, change.addedEntry.getType().getName());
+            JsonObject entry = gson.toJsonTree(change.addedEntry, BibEntry.class).getAsJsonObject();
+            entry.remove(ENTRY_TYPE);
+            json.add(ENTRY, entry);
+        } else {
+            json.addProperty(OPERATION, REMOVE);
+            json.addProperty(CITATION_KEY, change.removedCitationKey);
+        }
+        return json;
+    }
+
+    private void apply(JsonObject change, CachedLibrary library) {
+        String operation = change.has(OPERATION) ? change.get(OPERATION).getAsString() : "";
+        if (PUT.equals(operation) && change.has(TYPE) && change.has(ENTRY)) {
+            BibEntry entry = gson.fromJson(change.get(ENTRY), BibEntry.class);
+            entry.setType(EntryTypeFactory.parse(change.get(TYPE).getAsString()));
+            entry.getCitationKey().flatMap(library::getEntry).ifPresent(library::removeEntry);
+            // Required to get serialized
+            entry.setChanged(true);
+            library.insertEntry(entry);
+        } else if (REMOVE.equals(operation) && change.has(CITATION_KEY)) {
+            Optional<BibEntry> entry = library.getEntry(change.get(CITATION_KEY).getAsString());
+            entry.ifPresent(library::removeEntry);
+        } else {
+            throw new IllegalStateException("Incomplete or unknown journal operation " + operation);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.planqk.library.core.repository;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Provides one read/write lock per library.
+ * Readers of a library run concurrently, writers exclude all other readers and writers of the same library only.
+ */
+class LibraryLocks {
+    private final Map<Path, ReadWriteLock> locks = new ConcurrentHashMap<>();
+
+    Lock readLock(Path libraryPath) {
+        return getLock(libraryPath).readLock();
+    }
+
+    Lock writeLock(Path libraryPath) {
+        return getLock(libraryPath).writeLock();
+    }
+
+    private ReadWriteLock getLock(Path libraryPath) {
+        // Locks are kept for the lifetime of the service, as removing them could hand out different locks for the same library
+        return locks.computeIfAbsent(libraryPath, path -> new ReentrantReadWriteLock());
+    }
+}
@@ -0,0 +1,255 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jabref.logic.importer.ImportFormatPreferences;
+import org.jabref.logic.importer.ParseException;
+import org.jabref.logic.importer.fileformat.BibtexParser;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.util.FileUpdateMonitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Positions of the entries of a bib file by citation key, so that a single entry can be parsed without parsing the complete library.
+ * The bib file is memory-mapped while it is scanned, a single entry is read from the file afterwards. The mapping is not
+ * kept, as reading a mapping of a file truncated by another process fails with an {@link InternalError} instead of an exception.
+ * <p>
+ * The index is built by scanning the file for the start and the matching closing brace of each entry, it is only valid
+ * as long as size and modification time of the file do not change. Files using parentheses as entry delimiters or an
+ * encoding that is not compatible to ASCII, e.g. UTF-16, cannot be indexed.
+ */
+class LibraryOffsetIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibraryOffsetIndex.class);
+    private static final String ENCODING_HEADER = "% Encoding:";
+    private static final Set<String> NON_ENTRY_TYPES = Set.of("comment", "preamble", "string");
+    private static final String DELIMITERS = "@{}(),% \n";
+
+    private final Path libraryPath;
+    private final Charset encoding;
+    private final long size;
+    private final FileTime lastModified;
+    // Index into the positions of the first entry using the citation key
+    private final Map<String, Integer> entriesByKey = new HashMap<>();
+    private int[] starts = new int[1024];
+    private int[] ends = new int[1024];
+
+    private LibraryOffsetIndex(Path libraryPath, Charset encoding, BasicFileAttributes attributes) {
+        this.libraryPath = libraryPath;
+        this.encoding = encoding;
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime();
+    }
+
+    /**
+     * Maps the bib file and indexes its entries
+     *
+     * @param attributes      the attributes of the file, read before building the index
+     * @param defaultEncoding used if the file does not declare its encoding
+     * @return the index, empty if the file cannot be indexed
+     */
+    static Optional<LibraryOffsetIndex> build(Path libraryPath, BasicFileAttributes attributes, Charset defaultEncoding) throws IOException {
+        if (attributes.size() > Integer.MAX_VALUE) {
+            LOGGER.info("Library {} is too large to be indexed", libraryPath);
+            return Optional.empty();
+        }
+        MappedByteBuffer content;
+        try (FileChannel channel = FileChannel.open(libraryPath, StandardOpenOption.READ)) {
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, attributes.size());
+        }
+        Optional<Charset> encoding;
+        try {
+            encoding = getEncoding(content, defaultEncoding);
+        } catch (InternalError e) {
+            throw new IOException("Library " + libraryPath + " changed while it was indexed", e);
+        }
+        if (encoding.isEmpty()) {
+            LOGGER.info("Library {} uses an encoding that cannot be indexed", libraryPath);
+            return Optional.empty();
+        }
+        LibraryOffsetIndex index = new LibraryOffsetIndex(libraryPath, encoding.get(), attributes);
+        try {
+            if (!index.scan(content)) {
+                LOGGER.info("Library {} contains entries that cannot be indexed", libraryPath);
+                return Optional.empty();
+            }
+        } catch (InternalError e) {
+            // The file was truncated while it was scanned
+            throw new IOException("Library " + libraryPath + " changed while it was indexed", e);
+        }
+        return Optional.of(index);
+    }
+
+    boolean matches(BasicFileAttributes attributes) {
+        return attributes.size() == size && attributes.lastModifiedTime().equals(lastModified);
+    }
+
+    /**
+     * The version of a library read via its index is determined by its file, as the file is not changed by the service while indexed.
+     */
+    LibraryVersion getVersion() {
+        return new LibraryVersion("file-" + size + "-" + lastModified.toMillis(), lastModified.toInstant());
+    }
+
+    /**
+     * Only used by tests
+     *
+     * @return the number of indexed citation keys, entries sharing a key are counted once, as only the first one is indexed
+     */
+    int getKeyCount() {
+        return entriesByKey.size();
+    }
+
+    /**
+     * Parses the first entry using the citation key
+     *
+     * @throws IOException if the file changed since it was indexed
+     */
+    Optional<BibEntry> getEntry(String citationKey, ImportFormatPreferences importFormatPreferences, FileUpdateMonitor fileUpdateMonitor) throws IOException {
+        Integer entry = entriesByKey.get(citationKey);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ends[entry] - starts[entry]);
+        try (FileChannel channel = FileChannel.open(libraryPath, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, starts[entry] + buffer.position()) < 0) {
+                    throw new IOException("Library " + libraryPath + " changed since it was indexed");
+                }
+            }
+        }
+        // The file may have been rewritten in place while the entry was read
+        if (!matches(Files.readAttributes(libraryPath, BasicFileAttributes.class))) {
+            throw new IOException("Library " + libraryPath + " changed since it was indexed");
+        }
+        String source = encoding.decode(buffer.flip()).toString();
+        try {
+            return BibtexParser.singleFromString(source, importFormatPreferences, fileUpdateMonitor);
+        } catch (ParseException e) {
+            throw new IOException("Could not parse entry " + citationKey, e);
+        }
+    }
+
+    /**
+     * Reads the encoding declared by JabRef in the first line of the file
+     */
+    private static Optional<Charset> getEncoding(MappedByteBuffer content, Charset defaultEncoding) {
+        Charset encoding = defaultEncoding;
+        int lineEnd = 0;
+        while (lineEnd < content.limit() && lineEnd < 256 && content.get(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        String firstLine = StandardCharsets.US_ASCII.decode(content.slice(0, lineEnd)).toString().trim();
+        if (firstLine.startsWith(ENCODING_HEADER)) {
+            try {
+                encoding = Charset.forName(firstLine.substring(ENCODING_HEADER.length()).trim());
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                return Optional.empty();
+            }
+        }
+        // The scan looks for the delimiters of BibTeX as single bytes
+        if (!Arrays.equals(DELIMITERS.getBytes(encoding), DELIMITERS.getBytes(StandardCharsets.US_ASCII))) {
+            return Optional.empty();
+        }
+        return Optional.of(encoding);
+    }
+
+    /**
+     * @return false if the file contains an entry that cannot be indexed
+     */
+    private boolean scan(MappedByteBuffer content) {
+        int limit = content.limit();
+        int position = 0;
+        int entryCount = 0;
+        while (position < limit) {
+            if (content.get(position) != '@') {
+                position++;
+                continue;
+            }
+            int start = position;
+            int typeEnd = position + 1;
+            while (typeEnd < limit && Character.isLetter(content.get(typeEnd))) {
+                typeEnd++;
+            }
+            int open = skipWhitespace(content, typeEnd);
+            if (typeEnd == start + 1 || open >= limit || (content.get(open) != '{' && content.get(open) != '(')) {
+                // Not the start of an entry, e.g., an @ in a comment
+                position++;
+                continue;
+            }
+            if (content.get(open) == '(') {
+                return false;
+            }
+            int close = findClosingBrace(content, open);
+            if (close < 0) {
+                return false;
+            }
+            String type = StandardCharsets.US_ASCII.decode(content.slice(start + 1, typeEnd - start - 1)).toString().toLowerCase(Locale.ROOT);
+            if (!NON_ENTRY_TYPES.contains(type)) {
+                int keyStart = skipWhitespace(content, open + 1);
+                int keyEnd = keyStart;
+                while (keyEnd < close && content.get(keyEnd) != ',' && !Character.isWhitespace(content.get(keyEnd))) {
+                    keyEnd++;
+                }
+                if (keyEnd > keyStart) {
+                    addEntry(encoding.decode(content.slice(keyStart, keyEnd - keyStart)).toString(), entryCount++, start, close + 1);
+                }
+            }
+            position = close + 1;
+        }
+        return true;
+    }
+
+    private void addEntry(String citationKey, int entry, int start, int end) {
+        if (entry == starts.length) {
+            starts = Arrays.copyOf(starts, entry * 2);
+            ends = Arrays.copyOf(ends, entry * 2);
+        }
+        starts[entry] = start;
+        ends[entry] = end;
+        // Like the cached library, the first entry using a citation key is returned
+        entriesByKey.putIfAbsent(citationKey, entry);
+    }
+
+    private static int skipWhitespace(MappedByteBuffer content, int position) {
+        while (position < content.limit() && Character.isWhitespace(content.get(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return the position of the brace closing the one at the given position, -1 if it is not closed
+     */
+    private static int findClosingBrace(MappedByteBuffer content, int open) {
+        int depth = 0;
+        for (int position = open; position < content.limit(); position++) {
+            byte b = content.get(position);
+            if (b == '{') {
+                depth++;
+            } else if (b == '}' && --depth == 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,291 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.CorruptIndexException;
+import org.apache.lucene.index.IndexFormatTooNewException;
+import org.apache.lucene.index.IndexFormatTooOldException;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Full-text index over the entries of the libraries of a working directory, one Lucene index per library.
+ * <p>
+ * Each document references its entry by citation key and position among the entries sharing that key, thus changing
+ * a citation key only requires re-indexing the entries using it. The index of a library is brought up to date
+ * incrementally by {@link #update}, as long as it reflects the library version before the change. Otherwise, e.g.
+ * after the bib file was modified externally, the library is re-indexed completely on the next search.
+ * <p>
+ * Every commit records the state of the bib file and its journal it reflects, so that an index that is still up to
+ * date is reused after a restart.
+ */
+class LibrarySearchIndex {
+    static final String INDEX_DIRECTORY = ".search";
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibrarySearchIndex.class);
+    private static final String CITATION_KEY = "citationKey";
+    private static final String POSITION = "position";
+    private static final String LIBRARY_STATE = "libraryState";
+    private static final Map<String, StandardField> INDEXED_FIELDS = new LinkedHashMap<>();
+
+    static {
+        INDEXED_FIELDS.put("title", StandardField.TITLE);
+        INDEXED_FIELDS.put("author", StandardField.AUTHOR);
+        INDEXED_FIELDS.put("abstract", StandardField.ABSTRACT);
+        INDEXED_FIELDS.put("keywords", StandardField.KEYWORDS);
+        INDEXED_FIELDS.put("journal", StandardField.JOURNAL);
+        INDEXED_FIELDS.put("year", StandardField.YEAR);
+    }
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Map<Path, LibraryIndex> indexes = new ConcurrentHashMap<>();
+    private final Path indexDirectory;
+
+    LibrarySearchIndex(Path workingDirectory) {
+        this.indexDirectory = workingDirectory.resolve(INDEX_DIRECTORY);
+    }
+
+    /**
+     * Searches the title, author, abstract, keywords, journal and year of all entries of the library.
+     *
+     * @param query  query in Lucene query syntax, terms without field are matched against all indexed fields
+     * @param offset the number of best matching entries to skip
+     * @param limit  the maximum number of entries to return
+     * @throws IllegalArgumentException if the query cannot be parsed
+     */
+    SearchResult search(Path libraryPath, CachedLibrary library, String query, int offset, int limit) throws IOException {
+        Query parsedQuery = parse(query);
+        LibraryIndex index = getIndex(libraryPath);
+        index.synchronize(libraryPath, library);
+        IndexSearcher searcher = index.searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(parsedQuery, (int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+            List<BibEntry> entries = new ArrayList<>();
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                Document document = searcher.doc(scoreDoc.doc);
+                List<BibEntry> entriesWithKey = library.getCitationKeyIndex().getEntries(document.get(CITATION_KEY));
+                int position = document.getField(POSITION).numericValue().intValue();
+                if (position < entriesWithKey.size()) {
+                    entries.add(entriesWithKey.get(position));
+                }
+            }
+            return new SearchResult(topDocs.totalHits.value, entries);
+        } finally {
+            index.searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Re-indexes the entries using the given citation keys, has to be called after the changes were persisted.
+     * Does nothing if the index of the library is not open or did not reflect the previous version of the library.
+     *
+     * @param previousVersion the version of the library before the change
+     * @param citationKeys    the citation keys of all added, updated and removed entries
+     */
+    void update(Path libraryPath, CachedLibrary library, long previousVersion, Collection<String> citationKeys) {
+        LibraryIndex index = indexes.get(libraryPath);
+        if (index == null) {
+            return;
+        }
+        try {
+            index.update(libraryPath, library, previousVersion, citationKeys);
+        } catch (IOException e) {
+            // The change itself is persisted already, the index is rebuilt on the next search
+            LOGGER.error("Could not update search index of library {}.", libraryPath, e);
+        }
+    }
+
+    /**
+     * Re-indexes the library right away if its index is open, e.g. after the library was changed externally.
+     */
+    void refresh(Path libraryPath, CachedLibrary library) throws IOException {
+        LibraryIndex index = indexes.get(libraryPath);
+        if (index != null) {
+            index.synchronize(libraryPath, library);
+        }
+    }
+
+    void delete(Path libraryPath) throws IOException {
+        LibraryIndex index = indexes.remove(libraryPath);
+        if (index != null) {
+            index.close();
+        }
+        FileUtils.deleteDirectory(getIndexPath(libraryPath).toFile());
+    }
+
+    private Query parse(String query) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(INDEXED_FIELDS.keySet().toArray(new String[0]), analyzer);
+        try {
+            return parser.parse(query);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), e);
+        }
+    }
+
+    private synchronized LibraryIndex getIndex(Path libraryPath) throws IOException {
+        LibraryIndex index = indexes.get(libraryPath);
+        if (index == null) {
+            index = new LibraryIndex(getIndexPath(libraryPath));
+            indexes.put(libraryPath, index);
+        }
+        return index;
+    }
+
+    private Path getIndexPath(Path libraryPath) {
+        return indexDirectory.resolve(libraryPath.getFileName().toString());
+    }
+
+    /**
+     * @return the state of the bib file and its journal, changes whenever one of them is written
+     */
+    private static String getLibraryState(Path libraryPath) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(libraryPath, BasicFileAttributes.class);
+        Path journalPath = LibraryJournal.getJournalPath(libraryPath);
+        long journalSize = Files.exists(journalPath) ? Files.size(journalPath) : 0;
+        return attributes.size() + ":" + attributes.lastModifiedTime().toMillis() + ":" + journalSize;
+    }
+
+    private static Document toDocument(String citationKey, int position, BibEntry entry) {
+        Document document = new Document();
+        document.add(new StringField(CITATION_KEY, citationKey, Store.YES));
+        document.add(new StoredField(POSITION, position));
+        // Aliases cover e.g. the year of entries that only provide a date, or the journal title of biblatex entries
+        INDEXED_FIELDS.forEach((name, field) -> entry.getFieldOrAlias(field)
+                                                     .ifPresent(value -> document.add(new TextField(name, value, Store.NO))));
+        return document;
+    }
+
+    private class LibraryIndex {
+        private final FSDirectory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        // The library state recorded with the last commit
+        private String committedState;
+        // The cached library and its version the index reflects, not set until the index was synchronized with a library
+        private CachedLibrary indexedLibrary;
+        private long indexedVersion;
+
+        LibraryIndex(Path indexPath) throws IOException {
+            Files.createDirectories(indexPath);
+            directory = FSDirectory.open(indexPath);
+            writer = openWriter();
+            searcherManager = new SearcherManager(writer, null);
+            committedState = "";
+            writer.getLiveCommitData().forEach(data -> {
+                if (LIBRARY_STATE.equals(data.getKey())) {
+                    committedState = data.getValue();
+                }
+            });
+        }
+
+        private IndexWriter openWriter() throws IOException {
+            try {
+                return new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            } catch (CorruptIndexException | IndexFormatTooOldException | IndexFormatTooNewException e) {
+                LOGGER.warn("Discarding unreadable search index {}.", directory.getDirectory(), e);
+                return new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+            }
+        }
+
+        synchronized void synchronize(Path libraryPath, CachedLibrary library) throws IOException {
+            if (indexedLibrary == library && indexedVersion == library.getVersion()) {
+                return;
+            }
+            String libraryState = getLibraryState(libraryPath);
+            if (indexedLibrary == null && libraryState.equals(committedState)) {
+                // The index was written for the current content of the library before a restart
+                markIndexed(library);
+                return;
+            }
+            writer.deleteAll();
+            // Entries sharing a citation key are adjacent in citation key order, they are added as one group
+            List<BibEntry> entriesWithKey = new ArrayList<>();
+            String citationKey = null;
+            for (Map.Entry<CitationKeyIndex.Position, BibEntry> positionAndEntry : library.getCitationKeyIndex().getOrderedEntries().entrySet()) {
+                if (!positionAndEntry.getKey().getCitationKey().equals(citationKey)) {
+                    if (citationKey != null) {
+                        addDocuments(citationKey, entriesWithKey);
+                    }
+                    citationKey = positionAndEntry.getKey().getCitationKey();
+                    entriesWithKey = new ArrayList<>();
+                }
+                entriesWithKey.add(positionAndEntry.getValue());
+            }
+            if (citationKey != null) {
+                addDocuments(citationKey, entriesWithKey);
+            }
+            commit(libraryState);
+            markIndexed(library);
+            LOGGER.info("Indexed library {}", libraryPath);
+        }
+
+        synchronized void update(Path libraryPath, CachedLibrary library, long previousVersion, Collection<String> citationKeys) throws IOException {
+            if (indexedLibrary != library || indexedVersion != previousVersion) {
+                return;
+            }
+            // Reset first, so that a failing update leads to a re-index
+            indexedLibrary = null;
+            for (String citationKey : citationKeys) {
+                writer.deleteDocuments(new Term(CITATION_KEY, citationKey));
+                addDocuments(citationKey, library.getCitationKeyIndex().getEntries(citationKey));
+            }
+            commit(getLibraryState(libraryPath));
+            markIndexed(library);
+        }
+
+        synchronized void close() throws IOException {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+
+        private void addDocuments(String citationKey, List<BibEntry> entries) throws IOException {
+            for (int position = 0; position < entries.size(); position++) {
+                writer.addDocument(toDocument(citationKey, position, entries.get(position)));
+            }
+        }
+
+        private void commit(String libraryState) throws IOException {
+            writer.setLiveCommitData(Map.of(LIBRARY_STATE, libraryState).entrySet());
+            writer.commit();
+            committedState = libraryState;
+            searcherManager.maybeRefreshBlocking();
+        }
+
+        private void markIndexed(CachedLibrary library) {
+            indexedLibrary = library;
+            indexedVersion = library.getVersion();
+        }
+    }
+}
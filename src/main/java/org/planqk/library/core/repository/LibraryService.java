@@ -2,21 +2,35 @@ package org.planqk.library.core.repository;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.jabref.logic.database.DatabaseMerger;
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
 import org.jabref.logic.exporter.AtomicFileWriter;
 import org.jabref.logic.exporter.BibWriter;
 import org.jabref.logic.exporter.BibtexDatabaseWriter;
 import org.jabref.logic.exporter.SavePreferences;
-import org.jabref.logic.importer.OpenDatabase;
 import org.jabref.logic.util.OS;
 import org.jabref.model.database.BibDatabase;
 import org.jabref.model.database.BibDatabaseContext;
@@ -27,17 +41,46 @@ import org.jabref.model.util.FileUpdateMonitor;
 import org.jabref.preferences.GeneralPreferences;
 import org.jabref.preferences.JabRefPreferences;
 
+import org.planqk.library.core.properties.ServerPropertyService;
+import org.planqk.library.core.representation.CSLStyleAdapter;
+import org.planqk.library.core.representation.CitationCache;
 import org.planqk.library.rest.model.NewLibraryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class LibraryService {
-    private static final Map<Path, LibraryService> instances = new HashMap<>();
+    private static final Map<Path, LibraryService> instances = new ConcurrentHashMap<>();
     private static final Logger LOGGER = LoggerFactory.getLogger(LibraryService.class);
+    // Shared by all services, so that the number of threads parsing libraries stays bounded
+    private static final ExecutorService LIBRARY_LOADER = Executors.newFixedThreadPool(Math.min(Runtime.getRuntime().availableProcessors(), 8), runnable -> {
+        Thread thread = new Thread(runnable, "library-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LibraryCache libraryCache;
+    private final LibraryLocks libraryLocks = new LibraryLocks();
+    private final CitationCache citationCache = CitationCache.getInstance();
+    private final LibrarySearchIndex searchIndex;
+    private final LibraryCatalog catalog;
+    private final MergedLibraries mergedLibraries = new MergedLibraries(JabRefPreferences.getInstance().getImportFormatPreferences().getKeywordSeparator());
+    // Only set if changes are persisted using a journal
+    private final LibraryJournal journal;
+    // Only set if snapshots of the libraries are kept
+    private final LibrarySnapshot snapshot;
+    // Only set if single entries are read from the bib files using offset indexes
+    private final Map<Path, LibraryOffsetIndex> offsetIndexes;
+    // Handed to the parser, which registers listeners for files referenced by libraries, e.g. group files, but never removes them
+    private final FileUpdateMonitor fileUpdateMonitor = new DummyFileUpdateMonitor();
+    // Whether the catalog is kept current by file system events
+    private volatile boolean watching;
+    // The last time a library was removed, which the versions of the remaining libraries do not reflect
+    private volatile Instant lastRemoval = Instant.now();
     private Path workingDirectory;
 
-    private LibraryService(Path workingDirectory) {
+    private LibraryService(Path workingDirectory, PersistenceMode persistenceMode, Duration compactionInterval, boolean snapshots, ReadMode readMode) {
         this.workingDirectory = workingDirectory;
+        this.searchIndex = new LibrarySearchIndex(workingDirectory);
+        this.catalog = new LibraryCatalog(workingDirectory, JabRefPreferences.getInstance().getGeneralPreferences().getDefaultEncoding());
         if (Files.notExists(workingDirectory)) {
             try {
                 Files.createDirectories(workingDirectory);
@@ -46,27 +89,131 @@ public class LibraryService {
                 System.exit(1);
             }
         }
+        snapshot = snapshots ? new LibrarySnapshot(fileUpdateMonitor) : null;
+        offsetIndexes = readMode == ReadMode.INDEXED ? new ConcurrentHashMap<>() : null;
+        if (persistenceMode == PersistenceMode.JOURNAL) {
+            journal = new LibraryJournal();
+            libraryCache = new LibraryCache(journal, snapshot, fileUpdateMonitor);
+            startCompaction(compactionInterval);
+        } else {
+            journal = null;
+            libraryCache = new LibraryCache(null, snapshot, fileUpdateMonitor);
+        }
+        if (WatchingFileUpdateMonitor.getInstanceOrDummy() instanceof WatchingFileUpdateMonitor watchingMonitor) {
+            watchWorkingDirectory(watchingMonitor);
+        }
     }
 
     public static LibraryService getInstance(Path workingDirectory) {
-        return instances.computeIfAbsent(workingDirectory, LibraryService::new);
+        ServerPropertyService properties = ServerPropertyService.getInstance();
+        return getInstance(workingDirectory, properties.getPersistenceMode(), properties.getCompactionInterval());
+    }
+
+    /**
+     * Note that the persistence mode is only considered when the first instance for the working directory is created.
+     */
+    public static LibraryService getInstance(Path workingDirectory, PersistenceMode persistenceMode, Duration compactionInterval) {
+        ServerPropertyService properties = ServerPropertyService.getInstance();
+        return getInstance(workingDirectory, persistenceMode, compactionInterval, properties.isSnapshotsEnabled(), properties.getReadMode());
+    }
+
+    /**
+     * Note that persistence mode, snapshots and read mode are only considered when the first instance for the working directory is created.
+     */
+    public static LibraryService getInstance(Path workingDirectory, PersistenceMode persistenceMode, Duration compactionInterval, boolean snapshots, ReadMode readMode) {
+        return instances.computeIfAbsent(workingDirectory, directory -> new LibraryService(directory, persistenceMode, compactionInterval, snapshots, readMode));
     }
 
     public List<String> getLibraryNames() throws IOException {
-        return Files.list(workingDirectory)                // Alternatively walk(Path start, int depth) for recursive aggregation
-                    .filter(file -> !Files.isDirectory(file))
-                    .map(Path::getFileName)
-                    .map(Path::toString)
-                    .filter(file -> file.endsWith(".bib"))
-                    .collect(Collectors.toList());
+        return getLibraryPaths().stream()
+                                .map(Path::getFileName)
+                                .map(Path::toString)
+                                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the statistics of all libraries. Libraries that were not loaded since the start of the service are loaded in parallel.
+     */
+    public List<LibraryInfo> getLibraryInfos() throws IOException {
+        List<Path> libraryPaths = getLibraryPaths();
+        // Without file system events, each library has to be checked for external changes
+        List<Path> unknownLibraries = libraryPaths.stream()
+                                                  .filter(path -> !watching || catalog.getInfo(path).isEmpty())
+                                                  .collect(Collectors.toList());
+        loadInParallel(unknownLibraries, this::getLibraryView);
+        return libraryPaths.stream()
+                           .map(catalog::getInfo)
+                           .flatMap(Optional::stream)
+                           .collect(Collectors.toList());
     }
 
     public void createLibrary(NewLibraryDTO newLibraryConfiguration) throws IOException {
-        Files.createFile(getLibraryPath(newLibraryConfiguration.getLibraryName()));
+        Path libraryPath = getLibraryPath(newLibraryConfiguration.getLibraryName());
+        Files.createFile(libraryPath);
+        catalog.added(libraryPath);
     }
 
     public Boolean deleteLibrary(String libraryName) throws IOException {
-        return Files.deleteIfExists(getLibraryPath(libraryName));
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.writeLock(libraryPath);
+        lock.lock();
+        try {
+            libraryCache.invalidate(libraryPath);
+            catalog.removed(libraryPath);
+            searchIndex.delete(libraryPath);
+            citationCache.invalidate(libraryPath);
+            lastRemoval = Instant.now();
+            if (journal != null) {
+                journal.delete(libraryPath);
+            }
+            if (snapshot != null) {
+                snapshot.delete(libraryPath);
+            }
+            if (offsetIndexes != null) {
+                offsetIndexes.remove(libraryPath);
+            }
+            return Files.deleteIfExists(libraryPath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Determines the version of the library without serializing its entries, the library is only loaded if it is not cached
+     * and cannot be read using its offset index.
+     */
+    public LibraryVersion getLibraryVersion(String libraryName) throws IOException {
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            Optional<LibraryOffsetIndex> offsetIndex = getOffsetIndexIfReadable(libraryPath);
+            if (offsetIndex.isPresent()) {
+                return offsetIndex.get().getVersion();
+            }
+            return libraryCache.getVersion(getCachedLibrary(libraryPath));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Determines the version of the merged entries of all libraries, see {@link #getAllEntries()}.
+     */
+    public LibraryVersion getAllLibrariesVersion() throws IOException {
+        List<Path> libraryPaths = getLibraryPaths();
+        List<Optional<LibraryVersion>> versions = loadInParallel(libraryPaths, this::getLibraryVersionIfAvailable);
+        StringBuilder tags = new StringBuilder();
+        Instant lastModified = lastRemoval;
+        for (int i = 0; i < libraryPaths.size(); i++) {
+            Optional<LibraryVersion> version = versions.get(i);
+            // Libraries that cannot be loaded are skipped by the merged view, thus their state is part of the version
+            tags.append(libraryPaths.get(i).getFileName()).append('=').append(version.map(LibraryVersion::getTag).orElse("unavailable")).append('\n');
+            if (version.isPresent() && version.get().getLastModified().isAfter(lastModified)) {
+                lastModified = version.get().getLastModified();
+            }
+        }
+        return LibraryVersion.combine(tags.toString(), lastModified);
     }
 
     public boolean libraryExists(String libraryName) {
@@ -75,80 +222,553 @@ public class LibraryService {
 
     public List<BibEntry> getLibraryEntries(String libraryName) throws IOException {
         Path libraryPath = getLibraryPath(libraryName);
-        if (!Files.exists(libraryPath)) {
-            throw new FileNotFoundException();
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            return new ArrayList<>(getCachedLibrary(libraryPath).getContext()
+                                                                .getDatabase()
+                                                                .getEntries());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit entries of the library in citation key order, following the entries of the page the cursor was returned with.
+     *
+     * @param cursor the cursor of the previous page, empty to retrieve the first page
+     */
+    public EntryPage getLibraryEntryPage(String libraryName, Optional<String> cursor, int limit) throws IOException {
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            return EntryPage.of(getCachedLibrary(libraryPath).getCitationKeyIndex().getOrderedEntries(), cursor, limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Searches the title, author, abstract, keywords, journal and year of the entries of the library.
+     *
+     * @param query  query in Lucene query syntax
+     * @param offset the number of best matching entries to skip
+     * @param limit  the maximum number of entries to return
+     * @return the matching entries ordered by relevance
+     * @throws IllegalArgumentException if the query cannot be parsed
+     */
+    public SearchResult searchLibrary(String libraryName, String query, int offset, int limit) throws IOException {
+        if (offset < 0 || limit < 1) {
+            throw new IllegalArgumentException("The offset must not be negative and the limit has to be positive.");
+        }
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            return searchIndex.search(libraryPath, getCachedLibrary(libraryPath), query, offset, limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns all entries matching the query, see {@link #searchLibrary(String, String, int, int)}.
+     *
+     * @return the matching entries ordered by relevance
+     * @throws IllegalArgumentException if the query cannot be parsed
+     */
+    public List<BibEntry> searchLibrary(String libraryName, String query) throws IOException {
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            int entryCount = library.getContext().getDatabase().getEntryCount();
+            return searchIndex.search(libraryPath, library, query, 0, Math.max(entryCount, 1)).getEntries();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Looks up multiple cite keys with a single access to the library.
+     *
+     * @return the entries matching the cite keys in order of the given cite keys, cite keys without entry are left out
+     */
+    public Map<String, BibEntry> getLibraryEntriesMatchingCiteKeys(String libraryName, List<String> citeKeys) throws IOException {
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            Map<String, BibEntry> entries = new LinkedHashMap<>();
+            for (String citeKey : citeKeys) {
+                library.getEntry(citeKey).ifPresent(entry -> entries.put(citeKey, entry));
+            }
+            return entries;
+        } finally {
+            lock.unlock();
         }
-        // We do not need any update monitoring
-        return new ArrayList<>(OpenDatabase.loadDatabase(libraryPath, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), new DummyFileUpdateMonitor())
-                                           .getDatabase()
-                                           .getEntries());
     }
 
     public Optional<BibEntry> getLibraryEntryMatchingCiteKey(String libraryName, String citeKey) throws IOException {
         Path libraryPath = getLibraryPath(libraryName);
-        if (!Files.exists(libraryPath)) {
-            throw new FileNotFoundException();
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            Optional<LibraryOffsetIndex> offsetIndex = getOffsetIndexIfReadable(libraryPath);
+            if (offsetIndex.isPresent()) {
+                try {
+                    return offsetIndex.get().getEntry(citeKey, JabRefPreferences.getInstance().getImportFormatPreferences(), fileUpdateMonitor);
+                } catch (IOException e) {
+                    // E.g., the file was rewritten while the entry was read, the complete library is parsed instead
+                    LOGGER.info("Could not read entry {} of library {} using its offset index.", citeKey, libraryPath, e);
+                    offsetIndexes.remove(libraryPath);
+                }
+            }
+            // If multiple entries share the cite key, the first one in the library is returned, see getDuplicateCitationKeys
+            return getCachedLibrary(libraryPath).getEntry(citeKey);
+        } finally {
+            lock.unlock();
         }
-        // Note that this might lead to issues if multiple entries have the same cite key!
-        return OpenDatabase.loadDatabase(libraryPath, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), new DummyFileUpdateMonitor())
-                           .getDatabase()
-                           .getEntryByCitationKey(citeKey);
     }
 
-    public synchronized void addEntryToLibrary(String libraryName, BibEntry newEntry) throws IOException {
+    /**
+     * Renders an entry of the library in the given citation style, citations are cached until the entry changes.
+     *
+     * @param entry an entry returned by {@link #getLibraryEntryMatchingCiteKey(String, String)}
+     * @param style a style returned by {@link CSLStyleAdapter#getRegisteredStyles()}, the default style is used otherwise
+     */
+    public String getCitation(String libraryName, BibEntry entry, String style, CitationStyleOutputFormat outputFormat) throws IOException, URISyntaxException {
+        // Rendering is slow, thus the citation is rendered without holding the lock of the library
+        CSLStyleAdapter styleAdapter = CSLStyleAdapter.getInstance();
+        return citationCache.getCitation(getLibraryPath(libraryName), entry, style, outputFormat,
+                                         () -> styleAdapter.tryGenerateCitation(entry, style, outputFormat))
+                            .orElseGet(CSLStyleAdapter::getFailureMessage);
+    }
+
+    /**
+     * @return the citation keys that are used by more than one entry of the library
+     */
+    public Set<String> getDuplicateCitationKeys(String libraryName) throws IOException {
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            return getCachedLibrary(libraryPath).getCitationKeyIndex().getDuplicateKeys();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void addEntryToLibrary(String libraryName, BibEntry newEntry) throws IOException {
         // Enforce that a citation key is provided and that is is not part of the library already.
         if (newEntry.getCitationKey().isEmpty()) {
             throw new IllegalArgumentException("Entry does not contain a citation key");
         }
         Path libraryPath = getLibraryPath(libraryName);
-        BibDatabaseContext context;
-        if (!Files.exists(libraryPath)) {
-            throw new FileNotFoundException();
-        } else {
-            context = OpenDatabase.loadDatabase(libraryPath, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), new DummyFileUpdateMonitor())
-                                  .getDatabaseContext();
-        }
-        // Required to get serialized
-        newEntry.setChanged(true);
-        if(this.citationKeyAlreadyExists(libraryName, newEntry.getCitationKey().get())) {
-            throw new IllegalArgumentException("Library already contains an entry with that citation key.");
+        Lock lock = libraryLocks.writeLock(libraryPath);
+        lock.lock();
+        try {
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            // Required to get serialized
+            newEntry.setChanged(true);
+            if (library.getCitationKeyIndex().contains(newEntry.getCitationKey().get())) {
+                throw new IllegalArgumentException("Library already contains an entry with that citation key.");
+            }
+            library.insertEntry(newEntry);
+            persist(libraryPath, library, List.of(LibraryJournal.Change.added(newEntry)));
+        } finally {
+            lock.unlock();
         }
-        context.getDatabase().insertEntry(newEntry);
-        GeneralPreferences generalPreferences = JabRefPreferences.getInstance().getGeneralPreferences();
-        SavePreferences savePreferences = JabRefPreferences.getInstance().getSavePreferences();
+    }
 
-        try (AtomicFileWriter fileWriter = new AtomicFileWriter(libraryPath, context.getMetaData().getEncoding().orElse(generalPreferences.getDefaultEncoding()), savePreferences.shouldMakeBackup())) {
-            BibWriter writer = new BibWriter(fileWriter, OS.NEWLINE);
-            BibtexDatabaseWriter databaseWriter = new BibtexDatabaseWriter(writer, JabRefPreferences.getInstance().getGeneralPreferences(), savePreferences, new BibEntryTypesManager());
-            databaseWriter.saveDatabase(context);
+    /**
+     * Adds all entries whose citation key is neither used in the library nor by an earlier entry of the batch.
+     * The library is written once for the whole batch.
+     *
+     * @return one result per given entry, in the order of the given entries
+     */
+    public List<EntryInsertResult> addEntriesToLibrary(String libraryName, List<BibEntry> newEntries) throws IOException {
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.writeLock(libraryPath);
+        lock.lock();
+        try {
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            List<EntryInsertResult> results = new ArrayList<>(newEntries.size());
+            List<BibEntry> acceptedEntries = new ArrayList<>();
+            Set<String> batchKeys = new HashSet<>();
+            for (BibEntry newEntry : newEntries) {
+                Optional<String> citationKey = newEntry.getCitationKey();
+                if (citationKey.isEmpty()) {
+                    results.add(EntryInsertResult.failure(null, "Entry does not contain a citation key"));
+                } else if (library.getCitationKeyIndex().contains(citationKey.get())) {
+                    results.add(EntryInsertResult.failure(citationKey.get(), "Library already contains an entry with that citation key."));
+                } else if (!batchKeys.add(citationKey.get())) {
+                    results.add(EntryInsertResult.failure(citationKey.get(), "Batch contains multiple entries with that citation key."));
+                } else {
+                    // Required to get serialized
+                    newEntry.setChanged(true);
+                    acceptedEntries.add(newEntry);
+                    results.add(EntryInsertResult.success(citationKey.get()));
+                }
+            }
+            if (!acceptedEntries.isEmpty()) {
+                acceptedEntries.forEach(library::insertEntry);
+                persist(libraryPath, library, acceptedEntries.stream().map(LibraryJournal.Change::added).collect(Collectors.toList()));
+            }
+            return results;
+        } finally {
+            lock.unlock();
         }
     }
 
-    public synchronized void updateEntry(String libraryName, String citeKey, BibEntry updatedEntry) throws IOException {
+    /**
+     * Replaces the entry with the given cite key by the updated entry, which may use a different citation key.
+     * If the library does not contain an entry with the cite key, the updated entry is added.
+     * The library is only changed if the updated entry is valid and it is persisted with a single write.
+     */
+    public void updateEntry(String libraryName, String citeKey, BibEntry updatedEntry) throws IOException {
         // Enforce that a citation key is provided and that is is not part of the library already.
         if (updatedEntry.getCitationKey().isEmpty()) {
             throw new IllegalArgumentException("Entry does not contain a citation key");
         }
-        this.deleteEntryByCiteKey(libraryName, citeKey);
-        updatedEntry.setChanged(true);
-        this.addEntryToLibrary(libraryName, updatedEntry);
+        String updatedCiteKey = updatedEntry.getCitationKey().get();
+        Path libraryPath = getLibraryPath(libraryName);
+        Lock lock = libraryLocks.writeLock(libraryPath);
+        lock.lock();
+        try {
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            if (!updatedCiteKey.equals(citeKey) && library.getCitationKeyIndex().contains(updatedCiteKey)) {
+                throw new IllegalArgumentException("Library already contains an entry with that citation key.");
+            }
+            // Required to get serialized
+            updatedEntry.setChanged(true);
+            Optional<BibEntry> currentEntry = library.getEntry(citeKey);
+            if (currentEntry.isPresent()) {
+                library.replaceEntry(currentEntry.get(), updatedEntry);
+                persist(libraryPath, library, List.of(LibraryJournal.Change.removed(citeKey), LibraryJournal.Change.added(updatedEntry)));
+            } else {
+                library.insertEntry(updatedEntry);
+                persist(libraryPath, library, List.of(LibraryJournal.Change.added(updatedEntry)));
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
-    public synchronized boolean deleteEntryByCiteKey(String libraryName, String citeKey) throws IOException {
+    public boolean deleteEntryByCiteKey(String libraryName, String citeKey) throws IOException {
         Path libraryPath = getLibraryPath(libraryName);
-        BibDatabaseContext context;
+        Lock lock = libraryLocks.writeLock(libraryPath);
+        lock.lock();
+        try {
+            if (!Files.exists(libraryPath)) {
+                return false;
+            }
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            Optional<BibEntry> entry = library.getEntry(citeKey);
+            if (entry.isEmpty()) {
+                return false;
+            }
+
+            library.removeEntry(entry.get());
+            persist(libraryPath, library, List.of(LibraryJournal.Change.removed(citeKey)));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the entries of all libraries merged into one list. Libraries are loaded in parallel and only libraries
+     * that changed since the previous call are merged again.
+     */
+    public List<BibEntry> getAllEntries() throws IOException {
+        mergedLibraries.update(getLibraryViews());
+        return mergedLibraries.getEntries();
+    }
+
+    /**
+     * Returns up to limit entries of all libraries in citation key order, following the entries of the page the cursor was returned with.
+     *
+     * @param cursor the cursor of the previous page, empty to retrieve the first page
+     */
+    public EntryPage getAllEntryPage(Optional<String> cursor, int limit) throws IOException {
+        mergedLibraries.update(getLibraryViews());
+        return mergedLibraries.getPage(cursor, limit);
+    }
+
+    private List<MergedLibraries.LibraryView> getLibraryViews() throws IOException {
+        return loadInParallel(getLibraryPaths(), this::getLibraryView);
+    }
+
+    /**
+     * Applies the loader to all libraries on the shared loader threads.
+     *
+     * @return the results in the order of the given libraries
+     */
+    private <T> List<T> loadInParallel(List<Path> libraryPaths, Function<Path, T> loader) throws IOException {
+        List<Future<T>> loads = libraryPaths.stream()
+                                            .map(path -> LIBRARY_LOADER.submit(() -> loader.apply(path)))
+                                            .collect(Collectors.toList());
+        List<T> results = new ArrayList<>(loads.size());
+        for (Future<T> load : loads) {
+            try {
+                results.add(load.get());
+            } catch (InterruptedException e) {
+                loads.forEach(pending -> pending.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading libraries.", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Could not load libraries.", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private List<Path> getLibraryPaths() throws IOException {
+        if (!watching) {
+            // Without file system events, the catalog only knows about the changes of this service
+            catalog.scan();
+        }
+        return catalog.getLibraryPaths();
+    }
+
+    private Optional<LibraryVersion> getLibraryVersionIfAvailable(Path libraryPath) {
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            return Optional.of(libraryCache.getVersion(getCachedLibrary(libraryPath)));
+        } catch (IOException e) {
+            LOGGER.warn("Could not load library {}, skipping it.", libraryPath, e);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private MergedLibraries.LibraryView getLibraryView(Path libraryPath) {
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            CachedLibrary library = getCachedLibrary(libraryPath);
+            BibDatabase database = library.getContext().getDatabase();
+            return new MergedLibraries.LibraryView(libraryPath, library.getVersion(), new ArrayList<>(database.getEntries()), new ArrayList<>(database.getStringValues()));
+        } catch (IOException e) {
+            // If opening fails, the library is ignored
+            LOGGER.warn("Could not load library {}, skipping it.", libraryPath, e);
+            return MergedLibraries.LibraryView.failed(libraryPath);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CachedLibrary getCachedLibrary(Path libraryPath) throws IOException {
         if (!Files.exists(libraryPath)) {
-            return false;
+            throw new FileNotFoundException();
+        }
+        CachedLibrary library = libraryCache.get(libraryPath);
+        catalog.update(libraryPath, library);
+        return library;
+    }
+
+    /**
+     * Returns the offset index of the library if single entries are read using offset indexes and the library can be read that way.
+     * A cached library is used instead, as it holds the parsed entries already. The same holds for libraries with
+     * changes in their journal, which are not part of the bib file yet.
+     */
+    private Optional<LibraryOffsetIndex> getOffsetIndex(Path libraryPath) throws IOException {
+        if (offsetIndexes == null || libraryCache.getIfCached(libraryPath).isPresent() || (journal != null && journal.hasChanges(libraryPath))) {
+            return Optional.empty();
+        }
+        if (!Files.exists(libraryPath)) {
+            throw new FileNotFoundException();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(libraryPath, BasicFileAttributes.class);
+        LibraryOffsetIndex offsetIndex = offsetIndexes.get(libraryPath);
+        if (offsetIndex != null && offsetIndex.matches(attributes)) {
+            return Optional.of(offsetIndex);
+        }
+        return buildOffsetIndex(libraryPath, attributes);
+    }
+
+    /**
+     * Like {@link #getOffsetIndex(Path)}, but the cached library is used instead if the index cannot be built,
+     * e.g., as the file is rewritten while it is indexed.
+     */
+    private Optional<LibraryOffsetIndex> getOffsetIndexIfReadable(Path libraryPath) throws FileNotFoundException {
+        try {
+            return getOffsetIndex(libraryPath);
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            LOGGER.info("Could not index library {}.", libraryPath, e);
+            offsetIndexes.remove(libraryPath);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<LibraryOffsetIndex> buildOffsetIndex(Path libraryPath, BasicFileAttributes attributes) throws IOException {
+        Optional<LibraryOffsetIndex> built = LibraryOffsetIndex.build(libraryPath, attributes, JabRefPreferences.getInstance().getGeneralPreferences().getDefaultEncoding());
+        // Concurrent readers may build the index at the same time, the last one wins
+        built.ifPresentOrElse(index -> offsetIndexes.put(libraryPath, index), () -> offsetIndexes.remove(libraryPath));
+        return built;
+    }
+
+    /**
+     * Persists the changes that were applied to the cached library, depending on the persistence mode either
+     * by appending them to the journal or by rewriting the library.
+     */
+    private void persist(Path libraryPath, CachedLibrary library, List<LibraryJournal.Change> changes) throws IOException {
+        long previousVersion = library.getVersion();
+        if (journal == null) {
+            saveLibrary(libraryPath, library);
         } else {
-            context = OpenDatabase.loadDatabase(libraryPath, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), new DummyFileUpdateMonitor())
-                                  .getDatabaseContext();
+            try {
+                journal.append(libraryPath, changes);
+            } catch (IOException | RuntimeException e) {
+                libraryCache.invalidate(libraryPath);
+                throw e;
+            }
+            libraryCache.changed(library);
         }
-        Optional<BibEntry> entry = context.getDatabase().getEntryByCitationKey(citeKey);
-        if (entry.isEmpty()) {
-            return false;
+        Set<String> changedCitationKeys = changes.stream()
+                                                 .map(LibraryJournal.Change::getCitationKey)
+                                                 .collect(Collectors.toSet());
+        searchIndex.update(libraryPath, library, previousVersion, changedCitationKeys);
+        citationCache.invalidate(libraryPath, changedCitationKeys);
+        catalog.update(libraryPath, library);
+    }
+
+    /**
+     * Registers for changes of the libraries in the working directory. If the directory cannot be watched,
+     * external changes are still detected when a library is accessed, see {@link LibraryCache}.
+     * Libraries are reloaded by the library loaders, so that parsing a large library does not delay the notifications
+     * about other libraries and studies.
+     */
+    private void watchWorkingDirectory(WatchingFileUpdateMonitor monitor) {
+        try {
+            monitor.addDirectoryListener(workingDirectory, new WatchingFileUpdateMonitor.DirectoryUpdateListener() {
+                @Override
+                public void filesUpdated(Set<Path> changedFiles) {
+                    changedFiles.stream()
+                                .map(file -> file.getFileName().toString())
+                                .filter(fileName -> fileName.endsWith(".bib"))
+                                .map(LibraryService.this::getLibraryPath)
+                                .forEach(libraryPath -> LIBRARY_LOADER.execute(() -> reloadLibrary(libraryPath)));
+                }
+
+                @Override
+                public void eventsLost() {
+                    LIBRARY_LOADER.execute(LibraryService.this::reloadAllLibraries);
+                }
+            });
+            watching = true;
+        } catch (IOException e) {
+            LOGGER.warn("Could not watch working directory {} for changes.", workingDirectory, e);
         }
+    }
 
-        context.getDatabase().removeEntry(entry.get());
+    /**
+     * Brings cache and search index of a library in line with its file after it was changed by someone else than this service.
+     * Changed and new libraries are loaded right away, so that the next request does not have to parse them.
+     */
+    private void reloadLibrary(Path libraryPath) {
+        Lock lock = libraryLocks.writeLock(libraryPath);
+        lock.lock();
+        try {
+            if (Files.notExists(libraryPath)) {
+                libraryCache.invalidate(libraryPath);
+                catalog.removed(libraryPath);
+                searchIndex.delete(libraryPath);
+                citationCache.invalidate(libraryPath);
+                lastRemoval = Instant.now();
+                if (snapshot != null) {
+                    snapshot.delete(libraryPath);
+                }
+                if (offsetIndexes != null) {
+                    offsetIndexes.remove(libraryPath);
+                }
+            } else if (libraryCache.invalidateIfChanged(libraryPath)) {
+                LOGGER.info("Reloading library {} after external change.", libraryPath);
+                citationCache.invalidate(libraryPath);
+                catalog.added(libraryPath);
+                searchIndex.refresh(libraryPath, getCachedLibrary(libraryPath));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not reload library {} after external change.", libraryPath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reloadAllLibraries() {
+        Set<Path> libraryPaths = new HashSet<>(libraryCache.getCachedLibraryPaths());
+        try {
+            catalog.scan();
+            libraryPaths.addAll(catalog.getLibraryPaths());
+        } catch (IOException e) {
+            LOGGER.warn("Could not list libraries of {}.", workingDirectory, e);
+        }
+        libraryPaths.forEach(this::reloadLibrary);
+    }
+
+    private void startCompaction(Duration compactionInterval) {
+        ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-compactor-" + workingDirectory.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The first run folds journals left over from a previous run into their libraries
+        if (compactionInterval.isZero()) {
+            compactor.execute(this::compactJournals);
+        } else {
+            compactor.scheduleWithFixedDelay(this::compactJournals, 0, compactionInterval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Writes all libraries with pending journal changes to their bib files and truncates their journals afterwards.
+     */
+    void compactJournals() {
+        List<Path> journaledLibraries;
+        try {
+            journaledLibraries = LibraryJournal.findJournaledLibraries(workingDirectory);
+        } catch (IOException e) {
+            LOGGER.error("Could not list library journals.", e);
+            return;
+        }
+        for (Path libraryPath : journaledLibraries) {
+            Lock lock = libraryLocks.writeLock(libraryPath);
+            lock.lock();
+            try {
+                if (Files.notExists(libraryPath)) {
+                    journal.delete(libraryPath);
+                } else if (journal.hasChanges(libraryPath)) {
+                    // Loading the library replays the journal if it is not cached yet
+                    CachedLibrary library = getCachedLibrary(libraryPath);
+                    long previousVersion = library.getVersion();
+                    saveLibrary(libraryPath, library);
+                    journal.truncate(libraryPath);
+                    // The content did not change, but the search index has to record the new state of the files
+                    searchIndex.update(libraryPath, library, previousVersion, Set.of());
+                    catalog.update(libraryPath, library);
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Could not compact journal of library {}.", libraryPath, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the cached library back to its file. If writing fails, the cached library is dropped,
+     * as its in-memory state no longer reflects the content of the file.
+     */
+    private void saveLibrary(Path libraryPath, CachedLibrary library) throws IOException {
+        BibDatabaseContext context = library.getContext();
         GeneralPreferences generalPreferences = JabRefPreferences.getInstance().getGeneralPreferences();
         SavePreferences savePreferences = JabRefPreferences.getInstance().getSavePreferences();
 
@@ -156,31 +776,35 @@ public class LibraryService {
             BibWriter writer = new BibWriter(fileWriter, OS.NEWLINE);
             BibtexDatabaseWriter databaseWriter = new BibtexDatabaseWriter(writer, generalPreferences, savePreferences, new BibEntryTypesManager());
             databaseWriter.saveDatabase(context);
-            return true;
+        } catch (IOException | RuntimeException e) {
+            libraryCache.invalidate(libraryPath);
+            throw e;
+        }
+        libraryCache.written(libraryPath, library);
+        if (snapshot != null) {
+            // Runs once the write lock is released, as the caller still holds it
+            long version = library.getVersion();
+            LIBRARY_LOADER.execute(() -> takeSnapshot(libraryPath, library, version));
+        }
+        if (offsetIndexes != null && offsetIndexes.containsKey(libraryPath)) {
+            // The index maps the replaced file, which would otherwise be kept until the next single entry read
+            buildOffsetIndex(libraryPath, Files.readAttributes(libraryPath, BasicFileAttributes.class));
         }
     }
 
-    public List<BibEntry> getAllEntries() throws IOException {
-        List<String> libraryNames = getLibraryNames();
-        BibDatabase result = new BibDatabase();
-        DatabaseMerger merger = new DatabaseMerger(JabRefPreferences.getInstance().getImportFormatPreferences().getKeywordSeparator());
-        FileUpdateMonitor dummy = new DummyFileUpdateMonitor();
-        libraryNames.stream()
-                    .map(this::getLibraryPath)
-                    .map(path -> {
-                        try {
-                            return OpenDatabase.loadDatabase(path, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), dummy).getDatabase();
-                        } catch (IOException e) {
-                            // Just return an empty database, a.k.a if opening fails, ignore it
-                            return new BibDatabase();
-                        }
-                    })
-                    .forEach(database -> merger.merge(result, database));
-        return new ArrayList<>(result.getEntries());
-    }
-
-    private boolean citationKeyAlreadyExists(String libraryName, String citationKey) throws IOException {
-        return this.getLibraryEntryMatchingCiteKey(libraryName, citationKey).isPresent();
+    /**
+     * Takes the snapshot of a written library holding its read lock only, as serializing a large library takes a while
+     */
+    private void takeSnapshot(Path libraryPath, CachedLibrary library, long version) {
+        Lock lock = libraryLocks.readLock(libraryPath);
+        lock.lock();
+        try {
+            libraryCache.takeSnapshot(libraryPath, library, version);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not take a snapshot of library {}", libraryPath, e);
+        } finally {
+            lock.unlock();
+        }
     }
 
     private Path getLibraryPath(String libraryName) {
@@ -0,0 +1,293 @@
+package org.planqk.library.core.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.jabref.logic.exporter.BibWriter;
+import org.jabref.logic.exporter.BibtexDatabaseWriter;
+import org.jabref.logic.importer.ParserResult;
+import org.jabref.logic.importer.fileformat.BibtexParser;
+import org.jabref.logic.util.OS;
+import org.jabref.model.database.BibDatabase;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.BibEntryTypesManager;
+import org.jabref.model.entry.BibtexString;
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.FieldFactory;
+import org.jabref.model.entry.field.InternalField;
+import org.jabref.model.entry.types.EntryType;
+import org.jabref.model.entry.types.EntryTypeFactory;
+import org.jabref.model.util.FileUpdateMonitor;
+import org.jabref.preferences.JabRefPreferences;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Binary snapshot of a parsed library, stored next to it as hidden file. Reading the snapshot of a large library is
+ * considerably faster than parsing its bib file, as the entries are stored field by field and need no BibTeX parsing.
+ * <p>
+ * A snapshot records size and modification time of the bib file it was taken from, read before the file was parsed.
+ * It is only used while both still match, thus a change of the file during parsing leads to parsing it again on the next load.
+ * Everything but the entries, i.e., preamble, strings, epilog and metadata, is stored as BibTeX, which is small and quickly parsed.
+ * <p>
+ * Entries that were not changed since they were parsed keep their parsed serialization and the comments before them,
+ * so that writing the library after loading it from the snapshot results in the same file as after parsing it.
+ */
+class LibrarySnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LibrarySnapshot.class);
+    static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final int MAGIC = 0x4A4C5331;
+    private static final int FORMAT_VERSION = 2;
+    private static final int CHANGED = 1;
+    private static final int HAS_CITATION_KEY = 2;
+
+    private final FileUpdateMonitor fileUpdateMonitor;
+
+    /**
+     * @param fileUpdateMonitor handed to the parser of the metadata, as it is when parsing the bib file
+     */
+    LibrarySnapshot(FileUpdateMonitor fileUpdateMonitor) {
+        this.fileUpdateMonitor = fileUpdateMonitor;
+    }
+
+    static Path getSnapshotPath(Path libraryPath) {
+        return libraryPath.resolveSibling("." + libraryPath.getFileName() + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Loads the library from its snapshot
+     *
+     * @param attributes the attributes of the bib file, read before the snapshot
+     * @return the library, empty if there is no snapshot or it does not match the bib file
+     */
+    Optional<BibDatabaseContext> read(Path libraryPath, BasicFileAttributes attributes) {
+        Path snapshotPath = getSnapshotPath(libraryPath);
+        if (Files.notExists(snapshotPath)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.info("Ignoring snapshot {} of an unknown format", snapshotPath);
+                return Optional.empty();
+            }
+            long size = in.readLong();
+            long lastModified = in.readLong();
+            if (size != attributes.size() || lastModified != attributes.lastModifiedTime().toMillis()) {
+                LOGGER.info("Snapshot {} does not match its library anymore", snapshotPath);
+                return Optional.empty();
+            }
+            return Optional.of(readLibrary(in, libraryPath));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not read snapshot {}, parsing the library instead", snapshotPath, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the library, which has to reflect the content of its bib file.
+     * The snapshot is written to a temporary file first, so that concurrent readers never see a partial snapshot.
+     *
+     * @param attributes the attributes of the bib file, read before the library was parsed from it
+     */
+    void write(Path libraryPath, BibDatabaseContext library, BasicFileAttributes attributes) throws IOException {
+        Path snapshotPath = getSnapshotPath(libraryPath);
+        Path temporaryPath = Files.createTempFile(libraryPath.getParent(), snapshotPath.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(attributes.size());
+                out.writeLong(attributes.lastModifiedTime().toMillis());
+                writeLibrary(out, library);
+            }
+            Files.move(temporaryPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    void delete(Path libraryPath) throws IOException {
+        Files.deleteIfExists(getSnapshotPath(libraryPath));
+    }
+
+    private void writeLibrary(DataOutputStream out, BibDatabaseContext library) throws IOException {
+        writeString(out, library.getMetaData().getEncoding().map(Charset::name).orElse(""));
+        writeString(out, serializeWithoutEntries(library));
+
+        // Field names and entry types are stored once, the entries refer to them by index
+        List<BibEntry> entries = library.getDatabase().getEntries();
+        Map<String, Integer> fieldNames = new LinkedHashMap<>();
+        Map<String, Integer> entryTypes = new LinkedHashMap<>();
+        for (BibEntry entry : entries) {
+            entryTypes.putIfAbsent(entry.getType().getName(), entryTypes.size());
+            for (Field field : entry.getFields()) {
+                fieldNames.putIfAbsent(field.getName(), fieldNames.size());
+            }
+        }
+        writeNames(out, fieldNames);
+        writeNames(out, entryTypes);
+
+        writeVarInt(out, entries.size());
+        for (BibEntry entry : entries) {
+            writeVarInt(out, entryTypes.get(entry.getType().getName()));
+            Optional<String> citationKey = entry.getCitationKey();
+            out.writeByte((entry.hasChanged() ? CHANGED : 0) | (citationKey.isPresent() ? HAS_CITATION_KEY : 0));
+            if (citationKey.isPresent()) {
+                writeString(out, citationKey.get());
+            }
+            writeString(out, Objects.requireNonNullElse(entry.getUserComments(), ""));
+            if (!entry.hasChanged()) {
+                writeString(out, Objects.requireNonNullElse(entry.getParsedSerialization(), ""));
+            }
+            Map<Field, String> fields = entry.getFieldMap();
+            writeVarInt(out, citationKey.isPresent() ? fields.size() - 1 : fields.size());
+            for (Map.Entry<Field, String> field : fields.entrySet()) {
+                if (!field.getKey().equals(InternalField.KEY_FIELD)) {
+                    writeVarInt(out, fieldNames.get(field.getKey().getName()));
+                    writeString(out, field.getValue());
+                }
+            }
+        }
+    }
+
+    private BibDatabaseContext readLibrary(DataInputStream in, Path libraryPath) throws IOException {
+        String encoding = readString(in);
+        BibDatabaseContext library = parseWithoutEntries(readString(in));
+        library.setDatabasePath(libraryPath);
+        if (!encoding.isEmpty()) {
+            library.getMetaData().setEncoding(Charset.forName(encoding));
+        }
+
+        // Parsed once per library, as the parser of the bib file would for every occurrence
+        String[] names = readNames(in);
+        Field[] fields = new Field[names.length];
+        for (int i = 0; i < names.length; i++) {
+            fields[i] = FieldFactory.parseField(names[i]);
+        }
+        names = readNames(in);
+        EntryType[] entryTypes = new EntryType[names.length];
+        for (int i = 0; i < names.length; i++) {
+            entryTypes[i] = EntryTypeFactory.parse(names[i]);
+        }
+
+        int entryCount = readVarInt(in);
+        List<BibEntry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            BibEntry entry = new BibEntry(entryTypes[readVarInt(in)]);
+            int flags = in.readUnsignedByte();
+            if ((flags & HAS_CITATION_KEY) != 0) {
+                entry.setCitationKey(readString(in));
+            }
+            entry.setCommentsBeforeEntry(readString(in));
+            String parsedSerialization = (flags & CHANGED) == 0 ? readString(in) : null;
+            int fieldCount = readVarInt(in);
+            for (int j = 0; j < fieldCount; j++) {
+                Field field = fields[readVarInt(in)];
+                entry.setField(field, readString(in));
+            }
+            if (parsedSerialization == null) {
+                entry.setChanged(true);
+            } else {
+                entry.setParsedSerialization(parsedSerialization);
+                entry.setChanged(false);
+            }
+            entries.add(entry);
+        }
+        library.getDatabase().insertEntries(entries);
+        return library;
+    }
+
+    /**
+     * Writes the library without its entries as BibTeX, using the same writer as for the bib file
+     */
+    private String serializeWithoutEntries(BibDatabaseContext library) throws IOException {
+        BibDatabase database = library.getDatabase();
+        BibDatabase withoutEntries = new BibDatabase();
+        database.getPreamble().ifPresent(withoutEntries::setPreamble);
+        for (BibtexString string : database.getStringValues()) {
+            withoutEntries.addString(string);
+        }
+        withoutEntries.setEpilog(database.getEpilog());
+
+        StringWriter serialized = new StringWriter();
+        BibWriter writer = new BibWriter(serialized, OS.NEWLINE);
+        new BibtexDatabaseWriter(writer, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getSavePreferences(), new BibEntryTypesManager())
+                .saveDatabase(new BibDatabaseContext(withoutEntries, library.getMetaData()));
+        return serialized.toString();
+    }
+
+    private BibDatabaseContext parseWithoutEntries(String serialized) throws IOException {
+        ParserResult result = new BibtexParser(JabRefPreferences.getInstance().getImportFormatPreferences(), fileUpdateMonitor)
+                .parse(new StringReader(serialized));
+        return result.getDatabaseContext();
+    }
+
+    private static void writeNames(DataOutputStream out, Map<String, Integer> names) throws IOException {
+        writeVarInt(out, names.size());
+        for (String name : names.keySet()) {
+            writeString(out, name);
+        }
+    }
+
+    private static String[] readNames(DataInputStream in) throws IOException {
+        String[] names = new String[readVarInt(in)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = readString(in);
+        }
+        return names;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a non-negative number using seven bits per byte, most numbers in a snapshot fit into a single byte
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in snapshot");
+    }
+}
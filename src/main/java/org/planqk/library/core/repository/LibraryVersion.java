@@ -0,0 +1,49 @@
+package org.planqk.library.core.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Identifies the content of a library, or of all libraries of a working directory, without serializing it.
+ * <p>
+ * The tag changes whenever the content changes. Tags contain the start of the service they were issued by,
+ * thus a tag issued before a restart never matches afterwards.
+ */
+public class LibraryVersion {
+    private final String tag;
+    private final Instant lastModified;
+
+    LibraryVersion(String tag, Instant lastModified) {
+        this.tag = tag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Combines the versions of multiple libraries, the combined tag changes whenever one of them changes.
+     *
+     * @param tags one line per library, e.g. <code>name=tag</code>
+     */
+    static LibraryVersion combine(String tags, Instant lastModified) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new LibraryVersion(HexFormat.of().formatHex(digest.digest(tags.getBytes(StandardCharsets.UTF_8))), lastModified);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @return the time of the last change known to the service, changes of the same second share the same time
+     */
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
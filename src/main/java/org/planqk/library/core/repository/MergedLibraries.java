@@ -0,0 +1,130 @@
+package org.planqk.library.core.repository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.jabref.logic.database.DatabaseMerger;
+import org.jabref.model.database.BibDatabase;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.BibtexString;
+
+/**
+ * The entries of all libraries of a working directory merged into a single database, libraries are merged in order of their names.
+ * <p>
+ * The merged database is kept between requests. As the entries a library contributes depend on the entries of all
+ * libraries merged before it, an update only merges the libraries starting at the first one whose version changed.
+ * The contribution of all libraries before it is reused as is. The string definitions are merged again on every update,
+ * as the merger keeps the first definition of each name, which may come from any library.
+ */
+class MergedLibraries {
+    private final DatabaseMerger merger;
+    private final BibDatabase merged = new BibDatabase();
+    private final List<LibraryView> mergedViews = new ArrayList<>();
+    // The number of entries of the merged database after merging the library at the same position
+    private final List<Integer> mergedSizes = new ArrayList<>();
+    // Updated along with the merged database, so that entries that are merged again keep their position for paged requests
+    private final CitationKeyIndex orderedEntries = new CitationKeyIndex(List.of());
+
+    MergedLibraries(Character keywordSeparator) {
+        this.merger = new DatabaseMerger(keywordSeparator);
+    }
+
+    /**
+     * The entries of a library at a specific version
+     */
+    static class LibraryView {
+        private final Path libraryPath;
+        private final long version;
+        private final List<BibEntry> entries;
+        private final List<BibtexString> strings;
+
+        LibraryView(Path libraryPath, long version, List<BibEntry> entries, List<BibtexString> strings) {
+            this.libraryPath = libraryPath;
+            this.version = version;
+            this.entries = entries;
+            this.strings = strings;
+        }
+
+        /**
+         * A library that could not be loaded, it is merged again on every update.
+         */
+        static LibraryView failed(Path libraryPath) {
+            return new LibraryView(libraryPath, -1, List.of(), List.of());
+        }
+
+        boolean isSameVersion(LibraryView other) {
+            return version >= 0 && version == other.version && libraryPath.equals(other.libraryPath);
+        }
+    }
+
+    /**
+     * Brings the merged database up to date with the given views.
+     *
+     * @param views one view per library, ordered by library name
+     */
+    synchronized void update(List<LibraryView> views) {
+        int firstChange = 0;
+        while (firstChange < mergedViews.size() && firstChange < views.size()
+                && mergedViews.get(firstChange).isSameVersion(views.get(firstChange))) {
+            firstChange++;
+        }
+        if (firstChange == mergedViews.size() && firstChange == views.size()) {
+            return;
+        }
+
+        int retainedSize = firstChange == 0 ? 0 : mergedSizes.get(firstChange - 1);
+        List<BibEntry> entries = merged.getEntries();
+        List<BibEntry> removedEntries = new ArrayList<>(entries.subList(retainedSize, entries.size()));
+        merged.removeEntries(removedEntries);
+        removedEntries.forEach(orderedEntries::remove);
+        mergedViews.subList(firstChange, mergedViews.size()).clear();
+        mergedSizes.subList(firstChange, mergedSizes.size()).clear();
+        // Removing the strings of changed libraries only would keep definitions they shadowed before
+        merged.setStrings(new ArrayList<>());
+        for (LibraryView view : mergedViews) {
+            merger.mergeStrings(merged, copyStrings(view));
+        }
+
+        for (LibraryView view : views.subList(firstChange, views.size())) {
+            // The merger inserts the given entries and strings into the merged database, thus we must not hand out the cached instances
+            BibDatabase library = new BibDatabase();
+            library.insertEntries(view.entries.stream()
+                                              .map(entry -> (BibEntry) entry.clone())
+                                              .collect(Collectors.toList()));
+            library.setStrings(copyStrings(view));
+            int previousSize = merged.getEntryCount();
+            merger.merge(merged, library);
+            // The merger appends the entries that are no duplicates of merged entries
+            merged.getEntries().subList(previousSize, merged.getEntryCount()).forEach(orderedEntries::add);
+            mergedViews.add(view);
+            mergedSizes.add(merged.getEntryCount());
+        }
+    }
+
+    private static List<BibtexString> copyStrings(LibraryView view) {
+        return view.strings.stream()
+                           .map(string -> (BibtexString) string.clone())
+                           .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the merged entries, which are shared between requests and must not be modified
+     */
+    synchronized List<BibEntry> getEntries() {
+        return new ArrayList<>(merged.getEntries());
+    }
+
+    /**
+     * Entries of libraries that were not merged again keep their position, thus cursors issued before an update stay
+     * valid for them. Only entries of changed libraries sharing the citation key of the cursor may be repeated or skipped.
+     *
+     * @see EntryPage#of(NavigableMap, Optional, int)
+     */
+    synchronized EntryPage getPage(Optional<String> cursor, int limit) {
+        return EntryPage.of(orderedEntries.getOrderedEntries(), cursor, limit);
+    }
+}
@@ -0,0 +1,15 @@
+package org.planqk.library.core.repository;
+
+/**
+ * Determines how the library service persists changes of a library.
+ */
+public enum PersistenceMode {
+    /**
+     * Every change rewrites the complete bib file
+     */
+    DIRECT,
+    /**
+     * Changes are appended to a journal next to the bib file, which is periodically folded into the bib file
+     */
+    JOURNAL
+}
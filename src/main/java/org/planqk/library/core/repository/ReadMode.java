@@ -0,0 +1,16 @@
+package org.planqk.library.core.repository;
+
+/**
+ * Determines how the library service reads single entries of a library.
+ */
+public enum ReadMode {
+    /**
+     * The complete library is parsed and kept in memory
+     */
+    CACHED,
+    /**
+     * Single entries are parsed from the memory-mapped bib file, using an index of the positions of the entries.
+     * The complete library is only loaded by requests that need all of its entries and by changes.
+     */
+    INDEXED
+}
@@ -0,0 +1,29 @@
+package org.planqk.library.core.repository;
+
+import java.util.List;
+
+import org.jabref.model.entry.BibEntry;
+
+/**
+ * The entries of a library matching a search query, ordered by relevance.
+ */
+public class SearchResult {
+    private final long totalHits;
+    private final List<BibEntry> entries;
+
+    SearchResult(long totalHits, List<BibEntry> entries) {
+        this.totalHits = totalHits;
+        this.entries = entries;
+    }
+
+    /**
+     * @return the number of matching entries, including the ones that are not part of this result
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public List<BibEntry> getEntries() {
+        return entries;
+    }
+}
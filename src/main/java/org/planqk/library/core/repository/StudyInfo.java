@@ -0,0 +1,27 @@
+package org.planqk.library.core.repository;
+
+import java.util.Optional;
+
+/**
+ * A study together with the state of its latest crawl.
+ */
+public class StudyInfo {
+    private final String studyName;
+    private final TaskStatus crawlStatus;
+
+    StudyInfo(String studyName, TaskStatus crawlStatus) {
+        this.studyName = studyName;
+        this.crawlStatus = crawlStatus;
+    }
+
+    public String getStudyName() {
+        return studyName;
+    }
+
+    /**
+     * @return the status of the latest crawl, empty if the study was not crawled since the server started
+     */
+    public Optional<TaskStatus> getCrawlStatus() {
+        return Optional.ofNullable(crawlStatus);
+    }
+}
@@ -2,15 +2,23 @@ package org.planqk.library.core.repository;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystemAlreadyExistsException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jabref.logic.crawler.Crawler;
 import org.jabref.logic.crawler.StudyYamlParser;
@@ -20,6 +28,7 @@ import org.jabref.logic.importer.ParseException;
 import org.jabref.model.entry.BibEntryTypesManager;
 import org.jabref.model.study.Study;
 import org.jabref.model.util.DummyFileUpdateMonitor;
+import org.jabref.model.util.FileUpdateMonitor;
 import org.jabref.preferences.JabRefPreferences;
 
 import org.apache.commons.io.FileUtils;
@@ -29,8 +38,18 @@ import org.slf4j.LoggerFactory;
 public class StudyService {
     private static final Map<Path, StudyService> instances = new HashMap<>();
     private static final Logger LOGGER = LoggerFactory.getLogger(StudyService.class);
-    // Contains all running tasks,
-    private final Map<String, CrawlTask> runningCrawls = new HashMap<>();
+    // Files the library service keeps next to the study results, which must not be committed to the repository of the study
+    private static final List<String> IGNORED_SERVICE_FILES = List.of(
+            "*" + LibraryJournal.JOURNAL_EXTENSION,
+            "*" + LibrarySnapshot.SNAPSHOT_EXTENSION,
+            "*" + LibrarySnapshot.SNAPSHOT_EXTENSION + "*.tmp",
+            "/" + LibrarySearchIndex.INDEX_DIRECTORY + "/");
+    // Contains the latest crawl of each study
+    private final Map<String, CrawlTask> crawls = new ConcurrentHashMap<>();
+    // Kept current by file system events, or by listing the studies directory if it cannot be watched
+    private final Set<String> studyNames = new ConcurrentSkipListSet<>();
+    private volatile boolean watching;
+    private volatile boolean scanned;
     private Path studiesDirectory;
 
     /**
@@ -58,6 +77,7 @@ public class StudyService {
                 System.exit(1);
             }
         }
+        watchStudiesDirectory();
     }
 
     public static synchronized StudyService getInstance(Path workingDirectory) {
@@ -70,17 +90,26 @@ public class StudyService {
      * @return A list of the currently existing studies
      */
     public List<String> getStudyNames() throws IOException {
-        return Files.list(studiesDirectory)                // Alternatively walk(Path start, int depth) for recursive aggregation
-                    .filter(Files::isDirectory)
-                    .map(Path::getFileName)
-                    .map(Path::toString)
-                    .collect(Collectors.toList());
+        if (!watching || !scanned) {
+            scanStudies();
+        }
+        return new ArrayList<>(studyNames);
+    }
+
+    /**
+     * @return all studies together with the state of their latest crawl
+     */
+    public List<StudyInfo> getStudyInfos() throws IOException {
+        return getStudyNames().stream()
+                              .map(studyName -> new StudyInfo(studyName, getCrawlStatus(studyName).orElse(null)))
+                              .collect(Collectors.toList());
     }
 
     public synchronized void createStudy(Study study) throws IOException {
         Files.createDirectories(studiesDirectory.resolve(Paths.get(study.getTitle())));
         StudyYamlParser parser = new StudyYamlParser();
         parser.writeStudyYamlFile(study, studiesDirectory.resolve(Paths.get(study.getTitle(), "study.yml")));
+        studyNames.add(study.getTitle());
     }
 
     public boolean deleteStudy(String studyName) throws IOException {
@@ -89,6 +118,8 @@ public class StudyService {
             return false;
         }
         FileUtils.deleteDirectory(study.toFile());
+        studyNames.remove(studyName);
+        crawls.remove(studyName);
         return true;
     }
 
@@ -102,28 +133,94 @@ public class StudyService {
      * @throws ParseException Occurs if the study definition file is malformed
      */
     public synchronized void startCrawl(String studyName) throws IOException, ParseException {
-        if (runningCrawls.containsKey(studyName)) {
+        if (isCrawlRunning(studyName)) {
             return;
         }
         Path studyDirectory = studiesDirectory.resolve(Paths.get(studyName));
-        CrawlTask crawl = new CrawlTask(new Crawler(studyDirectory, new SlrGitHandler(studyDirectory), JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), JabRefPreferences.getInstance().getSavePreferences(), new BibEntryTypesManager(), new DummyFileUpdateMonitor()));
-        runningCrawls.put(studyName, crawl);
+        // Sets up the repository of the study including its .gitignore, if it does not exist yet
+        SlrGitHandler gitHandler = new SlrGitHandler(studyDirectory);
+        ignoreServiceFiles(studyDirectory);
+        CrawlTask crawl = new CrawlTask(new Crawler(studyDirectory, gitHandler, JabRefPreferences.getInstance().getGeneralPreferences(), JabRefPreferences.getInstance().getImportFormatPreferences(), JabRefPreferences.getInstance().getSavePreferences(), new BibEntryTypesManager(), new DummyFileUpdateMonitor()));
+        crawls.put(studyName, crawl);
         new Thread(crawl).start();
     }
 
+    /**
+     * Adds the files of the library service that are missing in the .gitignore of the study, keeping its other entries
+     */
+    static void ignoreServiceFiles(Path studyDirectory) throws IOException {
+        Path gitIgnore = studyDirectory.resolve(".gitignore");
+        String existing = Files.exists(gitIgnore) ? Files.readString(gitIgnore, StandardCharsets.UTF_8) : "";
+        List<String> ignored = existing.lines().map(String::strip).toList();
+        List<String> missing = IGNORED_SERVICE_FILES.stream()
+                                                    .filter(pattern -> !ignored.contains(pattern))
+                                                    .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        StringBuilder content = new StringBuilder();
+        if (!existing.isEmpty() && !existing.endsWith("\n")) {
+            content.append('\n');
+        }
+        missing.forEach(pattern -> content.append(pattern).append('\n'));
+        Files.writeString(gitIgnore, content, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
     /**
      * Checks whether there is a crawl running for the specified study.
-     * Removes crawls that are finished or failed.
      */
     public Boolean isCrawlRunning(String studyName) {
-        if (!runningCrawls.containsKey(studyName)) {
-            return false;
+        return getCrawlStatus(studyName).map(status -> status == TaskStatus.RUNNING).orElse(false);
+    }
+
+    /**
+     * @return the status of the latest crawl of the study, empty if it was not crawled since the server started
+     */
+    public Optional<TaskStatus> getCrawlStatus(String studyName) {
+        return Optional.ofNullable(crawls.get(studyName)).map(CrawlTask::getStatus);
+    }
+
+    private void watchStudiesDirectory() {
+        FileUpdateMonitor monitor = WatchingFileUpdateMonitor.getInstanceOrDummy();
+        if (!(monitor instanceof WatchingFileUpdateMonitor watchingMonitor)) {
+            return;
         }
-        if (runningCrawls.get(studyName).getStatus() == TaskStatus.RUNNING) {
-            return true;
+        try {
+            watchingMonitor.addDirectoryListener(studiesDirectory, new WatchingFileUpdateMonitor.DirectoryUpdateListener() {
+                @Override
+                public void filesUpdated(Set<Path> changedFiles) {
+                    for (Path changedFile : changedFiles) {
+                        String studyName = changedFile.getFileName().toString();
+                        if (Files.isDirectory(changedFile)) {
+                            studyNames.add(studyName);
+                        } else {
+                            studyNames.remove(studyName);
+                        }
+                    }
+                }
+
+                @Override
+                public void eventsLost() {
+                    scanned = false;
+                }
+            });
+            watching = true;
+        } catch (IOException e) {
+            LOGGER.warn("Could not watch studies directory {} for changes.", studiesDirectory, e);
+        }
+    }
+
+    private synchronized void scanStudies() throws IOException {
+        List<String> currentStudies;
+        try (Stream<Path> files = Files.list(studiesDirectory)) {
+            currentStudies = files.filter(Files::isDirectory)
+                                  .map(Path::getFileName)
+                                  .map(Path::toString)
+                                  .collect(Collectors.toList());
         }
-        runningCrawls.remove(studyName);
-        return false;
+        studyNames.retainAll(currentStudies);
+        studyNames.addAll(currentStudies);
+        scanned = true;
     }
 
     public Path getStudyPath(String studyName) {
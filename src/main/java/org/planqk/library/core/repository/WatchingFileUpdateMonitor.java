@@ -0,0 +1,238 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.util.DummyFileUpdateMonitor;
+import org.jabref.model.util.FileUpdateListener;
+import org.jabref.model.util.FileUpdateMonitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches directories for changes of the files within using a single {@link WatchService} for the whole server.
+ * <p>
+ * Tools such as editors, git or the crawler often write a file several times in a row, or write a temporary file and
+ * move it into place. Thus, listeners are not notified for each event, but once the events of a directory stopped for
+ * a short quiet period. Listeners have to check the state of the file system themselves, as the kind of the events
+ * is not reliable after such bursts.
+ * <p>
+ * All listeners are notified one after another on the single monitoring thread. Thus, listeners have to return quickly
+ * and hand over expensive work, such as reloading a library, to another thread.
+ */
+public class WatchingFileUpdateMonitor implements FileUpdateMonitor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WatchingFileUpdateMonitor.class);
+    private static final Duration QUIET_PERIOD = Duration.ofMillis(250);
+    // Notify at least this often during a continuous burst of events
+    private static final Duration MAX_DELAY = Duration.ofSeconds(2);
+    private static WatchingFileUpdateMonitor instance;
+
+    private final Duration quietPeriod;
+    private final Duration maxDelay;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, Set<FileUpdateListener>> fileListeners = new ConcurrentHashMap<>();
+    private final Map<Path, Set<DirectoryUpdateListener>> directoryListeners = new ConcurrentHashMap<>();
+    private volatile boolean active = true;
+
+    /**
+     * Notified about the changes of all files of a directory
+     */
+    public interface DirectoryUpdateListener {
+        /**
+         * @param changedFiles the files of the directory that were created, modified or deleted
+         */
+        void filesUpdated(Set<Path> changedFiles);
+
+        /**
+         * Called instead of {@link #filesUpdated(Set)} if events were lost, thus any file of the directory may have changed.
+         */
+        void eventsLost();
+    }
+
+    /**
+     * Creates a monitor independent of the shared one, which has to be shut down once it is no longer used
+     */
+    WatchingFileUpdateMonitor(Duration quietPeriod, Duration maxDelay) throws IOException {
+        this.quietPeriod = quietPeriod;
+        this.maxDelay = maxDelay;
+        watchService = FileSystems.getDefault().newWatchService();
+        Thread thread = new Thread(this::processEvents, "file-update-monitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @throws IllegalStateException if the shared monitor was shut down, as replacing it would silently drop all registered listeners
+     */
+    public static synchronized WatchingFileUpdateMonitor getInstance() throws IOException {
+        if (instance == null) {
+            instance = new WatchingFileUpdateMonitor(QUIET_PERIOD, MAX_DELAY);
+        }
+        if (!instance.isActive()) {
+            throw new IllegalStateException("The file update monitor was shut down");
+        }
+        return instance;
+    }
+
+    /**
+     * @return the shared monitor, or a monitor ignoring all changes if files cannot be watched on this system
+     */
+    public static FileUpdateMonitor getInstanceOrDummy() {
+        try {
+            return getInstance();
+        } catch (IOException e) {
+            LOGGER.warn("Could not start file update monitor, external changes are detected on access only.", e);
+            return new DummyFileUpdateMonitor();
+        }
+    }
+
+    @Override
+    public void addListenerForFile(Path file, FileUpdateListener listener) throws IOException {
+        Path normalizedFile = normalize(file);
+        watch(normalizedFile.getParent());
+        fileListeners.computeIfAbsent(normalizedFile, path -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    @Override
+    public void removeListener(Path path, FileUpdateListener listener) {
+        fileListeners.computeIfPresent(normalize(path), (unused, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    public void addDirectoryListener(Path directory, DirectoryUpdateListener listener) throws IOException {
+        Path normalizedDirectory = normalize(directory);
+        watch(normalizedDirectory);
+        directoryListeners.computeIfAbsent(normalizedDirectory, path -> new CopyOnWriteArraySet<>()).add(listener);
+    }
+
+    public void removeDirectoryListener(Path directory, DirectoryUpdateListener listener) {
+        directoryListeners.computeIfPresent(normalize(directory), (unused, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void shutdown() {
+        active = false;
+        try {
+            // Ends the processing thread
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close watch service.", e);
+        }
+    }
+
+    private synchronized void watch(Path directory) throws IOException {
+        if (!watchedDirectories.containsValue(directory)) {
+            WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirectories.put(key, directory);
+        }
+    }
+
+    private void processEvents() {
+        // Changed files per directory, collected until the quiet period passed
+        Map<Path, Set<Path>> pendingChanges = new HashMap<>();
+        Set<Path> overflowedDirectories = new HashSet<>();
+        long firstPendingEvent = 0;
+        long lastEvent = 0;
+        while (active) {
+            WatchKey key;
+            try {
+                if (pendingChanges.isEmpty() && overflowedDirectories.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long delay = Math.min(lastEvent + quietPeriod.toNanos(), firstPendingEvent + maxDelay.toNanos()) - System.nanoTime();
+                    key = delay > 0 ? watchService.poll(delay, TimeUnit.NANOSECONDS) : null;
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            if (key == null) {
+                notifyListeners(pendingChanges, overflowedDirectories);
+                pendingChanges.clear();
+                overflowedDirectories.clear();
+                continue;
+            }
+
+            Path directory = watchedDirectories.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (directory == null) {
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (pendingChanges.isEmpty() && overflowedDirectories.isEmpty()) {
+                    firstPendingEvent = now;
+                }
+                lastEvent = now;
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflowedDirectories.add(directory);
+                } else {
+                    pendingChanges.computeIfAbsent(directory, unused -> new HashSet<>()).add(directory.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                // The directory was deleted
+                watchedDirectories.remove(key);
+            }
+        }
+        LOGGER.info("Stopped monitoring file updates.");
+    }
+
+    private void notifyListeners(Map<Path, Set<Path>> pendingChanges, Set<Path> overflowedDirectories) {
+        for (Path directory : overflowedDirectories) {
+            directoryListeners.getOrDefault(directory, Set.of()).forEach(listener -> notify(listener::eventsLost));
+            fileListeners.forEach((file, listeners) -> {
+                if (directory.equals(file.getParent())) {
+                    listeners.forEach(listener -> notify(listener::fileUpdated));
+                }
+            });
+        }
+        pendingChanges.forEach((directory, changedFiles) -> {
+            if (overflowedDirectories.contains(directory)) {
+                return;
+            }
+            directoryListeners.getOrDefault(directory, Set.of()).forEach(listener -> notify(() -> listener.filesUpdated(changedFiles)));
+            for (Path changedFile : changedFiles) {
+                fileListeners.getOrDefault(changedFile, Set.of()).forEach(listener -> notify(listener::fileUpdated));
+            }
+        });
+    }
+
+    private void notify(Runnable notification) {
+        try {
+            notification.run();
+        } catch (RuntimeException e) {
+            // A failing listener must not stop the monitoring of all other files
+            LOGGER.error("File update listener failed.", e);
+        }
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,134 @@
+package org.planqk.library.core.representation;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Determines whether the position of an entry in the bibliography of a CSL style depends on the other entries, i.e.,
+ * whether the bibliography is sorted or shows the citation numbers of the entries, directly or through macros.
+ * <p>
+ * Dependent styles have no bibliography of their own, they use the bibliography of their independent parent.
+ */
+final class CSLBibliographyOrder {
+    private static final String CITATION_NUMBER = "citation-number";
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        // Styles are not trusted, e.g., styles registered from files
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private String independentParent;
+    private boolean hasBibliography;
+    private boolean sorted;
+    private boolean numbered;
+    // The macros the bibliography calls, and the macros each macro calls
+    private final Set<String> bibliographyMacros = new HashSet<>();
+    private final Map<String, Set<String>> macroCalls = new HashMap<>();
+    private final Set<String> numberedMacros = new HashSet<>();
+
+    private CSLBibliographyOrder() {
+    }
+
+    /**
+     * @param source        the source of the style
+     * @param parentSources returns the source of the style with the given id, used to resolve the parent of a dependent style
+     * @return true if the bibliography is ordered, also if the parent of a dependent style cannot be resolved
+     * @throws XMLStreamException if the style is malformed
+     */
+    static boolean isOrdered(String source, Function<String, Optional<String>> parentSources) throws XMLStreamException {
+        CSLBibliographyOrder style = parse(source);
+        if (!style.hasBibliography && style.independentParent != null) {
+            Optional<String> parentSource = parentSources.apply(style.independentParent);
+            // Independent parents have no parent themselves
+            return parentSource.isEmpty() || parse(parentSource.get()).isOrdered();
+        }
+        return style.isOrdered();
+    }
+
+    private boolean isOrdered() {
+        if (sorted || numbered) {
+            return true;
+        }
+        Set<String> visited = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(bibliographyMacros);
+        while (!pending.isEmpty()) {
+            String macro = pending.pop();
+            if (!visited.add(macro)) {
+                continue;
+            }
+            if (numberedMacros.contains(macro)) {
+                return true;
+            }
+            pending.addAll(macroCalls.getOrDefault(macro, Set.of()));
+        }
+        return false;
+    }
+
+    private static CSLBibliographyOrder parse(String source) throws XMLStreamException {
+        CSLBibliographyOrder style = new CSLBibliographyOrder();
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(source));
+        try {
+            boolean inBibliography = false;
+            String currentMacro = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("bibliography".equals(reader.getLocalName())) {
+                        inBibliography = false;
+                    } else if ("macro".equals(reader.getLocalName())) {
+                        currentMacro = null;
+                    }
+                    continue;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String element = reader.getLocalName();
+                if ("link".equals(element) && "independent-parent".equals(reader.getAttributeValue(null, "rel"))) {
+                    style.independentParent = reader.getAttributeValue(null, "href");
+                } else if ("bibliography".equals(element)) {
+                    inBibliography = true;
+                    style.hasBibliography = true;
+                } else if ("macro".equals(element)) {
+                    currentMacro = reader.getAttributeValue(null, "name");
+                } else if ("sort".equals(element) && inBibliography) {
+                    style.sorted = true;
+                }
+                String variable = reader.getAttributeValue(null, "variable");
+                boolean usesNumber = variable != null && Arrays.asList(variable.trim().split("\\s+")).contains(CITATION_NUMBER);
+                String calledMacro = reader.getAttributeValue(null, "macro");
+                if (inBibliography) {
+                    style.numbered |= usesNumber;
+                    if (calledMacro != null) {
+                        style.bibliographyMacros.add(calledMacro);
+                    }
+                } else if (currentMacro != null) {
+                    if (usesNumber) {
+                        style.numberedMacros.add(currentMacro);
+                    }
+                    if (calledMacro != null) {
+                        style.macroCalls.computeIfAbsent(currentMacro, macro -> new HashSet<>()).add(calledMacro);
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return style;
+    }
+}
@@ -0,0 +1,160 @@
+package org.planqk.library.core.representation;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.logic.citationstyle.CSLAdapter;
+import org.jabref.logic.citationstyle.CitationStyle;
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.BibEntryTypesManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of citation processor engines per style and output format.
+ * <p>
+ * Setting up an engine parses the style, which takes far longer than rendering a few citations. An engine keeps its
+ * style as long as it is used with the same style and output format, thus engines are pooled per style and output
+ * format and never switched to another one. Each engine is used by one thread at a time, the number of engines per
+ * style bounds the number of citations rendered concurrently in that style. Engines that were not used for the idle
+ * timeout are discarded, so that styles used once do not keep their engines forever. The pool of a style is discarded
+ * as well once none of its engines is left, thus the number of pools is bounded by the styles in recent use.
+ * Engines are created on first use of a style, as setting up engines for all bundled styles up front would parse
+ * hundreds of styles that are never used.
+ */
+class CSLEnginePool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CSLEnginePool.class);
+    private static final ScheduledExecutorService EVICTION = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "citation-engine-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int enginesPerStyle;
+    private final Duration idleTimeout;
+    private final Map<EngineKey, StylePool> pools = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> eviction;
+
+    CSLEnginePool(int enginesPerStyle, Duration idleTimeout) {
+        this.enginesPerStyle = enginesPerStyle;
+        this.idleTimeout = idleTimeout;
+        long evictionInterval = Math.max(idleTimeout.toMillis() / 2, 1);
+        this.eviction = EVICTION.scheduleWithFixedDelay(this::evictIdleEngines, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private static class EngineKey {
+        private final CitationStyle style;
+        private final CitationStyleOutputFormat outputFormat;
+
+        EngineKey(CitationStyle style, CitationStyleOutputFormat outputFormat) {
+            this.style = style;
+            this.outputFormat = outputFormat;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EngineKey)) {
+                return false;
+            }
+            EngineKey other = (EngineKey) o;
+            // Styles are registered once, thus each style is represented by a single instance
+            return style == other.style && outputFormat == other.outputFormat;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(style), outputFormat);
+        }
+    }
+
+    private static class PooledEngine {
+        private final CSLAdapter adapter = new CSLAdapter();
+        private volatile long lastUsed;
+    }
+
+    private class StylePool {
+        private final Semaphore permits = new Semaphore(enginesPerStyle, true);
+        // Most recently used engines first, so that idle engines gather at the end
+        private final Deque<PooledEngine> idleEngines = new ConcurrentLinkedDeque<>();
+    }
+
+    /**
+     * Renders the entries within a single session of an engine for the style, waits if all engines of the style are in use.
+     *
+     * @throws IllegalStateException if the citation processor fails, e.g. due to a malformed style
+     */
+    List<String> render(List<BibEntry> entries, CitationStyle style, CitationStyleOutputFormat outputFormat, BibDatabaseContext databaseContext, BibEntryTypesManager entryTypesManager) {
+        StylePool pool = pools.computeIfAbsent(new EngineKey(style, outputFormat), key -> new StylePool());
+        try {
+            pool.permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a citation engine", e);
+        }
+        try {
+            PooledEngine engine = pool.idleEngines.pollFirst();
+            if (engine == null) {
+                engine = new PooledEngine();
+            }
+            List<String> citations;
+            try {
+                citations = engine.adapter.makeBibliography(entries, style.getSource(), outputFormat, databaseContext, entryTypesManager);
+            } catch (IOException | RuntimeException e) {
+                // The state of the engine is unknown, thus it is not returned to the pool
+                throw new IllegalStateException("Could not render citations in style " + style.getTitle(), e);
+            }
+            engine.lastUsed = System.nanoTime();
+            pool.idleEngines.offerFirst(engine);
+            return citations;
+        } finally {
+            pool.permits.release();
+        }
+    }
+
+    /**
+     * @return the number of engines that are currently not in use
+     */
+    int getIdleEngineCount() {
+        return pools.values().stream().mapToInt(pool -> pool.idleEngines.size()).sum();
+    }
+
+    int getPoolCount() {
+        return pools.size();
+    }
+
+    void evictIdleEngines() {
+        long threshold = System.nanoTime() - idleTimeout.toNanos();
+        pools.values().forEach(pool -> {
+            if (pool.idleEngines.removeIf(engine -> engine.lastUsed - threshold <= 0)) {
+                LOGGER.debug("Discarded idle citation engines");
+            }
+        });
+        // A render that obtained a pool just before it is discarded still completes, its engine is discarded with the pool
+        pools.values().removeIf(pool -> pool.idleEngines.isEmpty() && pool.permits.availablePermits() == enginesPerStyle);
+    }
+
+    /**
+     * Stops evicting engines, the pool must not be used afterwards
+     */
+    void close() {
+        eviction.cancel(false);
+        pools.clear();
+    }
+}
@@ -2,57 +2,80 @@ package org.planqk.library.core.representation;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.FileSystemAlreadyExistsException;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLStreamException;
 
 import org.jabref.logic.citationstyle.CitationStyle;
-import org.jabref.logic.citationstyle.CitationStyleGenerator;
 import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.logic.l10n.Localization;
 import org.jabref.model.database.BibDatabaseContext;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.BibEntryTypesManager;
 
+import org.planqk.library.core.properties.ServerPropertyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class CSLStyleAdapter {
     private static final Logger LOGGER = LoggerFactory.getLogger(CSLStyleAdapter.class);
     private static final String STYLES_ROOT = "/csl-styles";
+    private static final BibEntryTypesManager ENTRY_TYPES_MANAGER = new BibEntryTypesManager();
     private static CSLStyleAdapter instance;
 
-    private Map<String, CitationStyle> namesToStyles = new HashMap<>();
+    // The titles of the bundled styles mapped to their style files, bundled styles are parsed once they are used
+    private final Map<String, String> bundledStyleFiles;
+    // The parsed bundled styles and the styles registered from files
+    private final Map<String, CitationStyle> namesToStyles = new ConcurrentHashMap<>();
+    private final CSLEnginePool engines;
+    private volatile CitationStyle defaultStyle;
 
-    static {
-        // Setup file system
-        Map<String, String> env = new HashMap<>();
-        env.put("create", "true");
-        try {
-            FileSystems.newFileSystem(CitationStyle.class.getResource(STYLES_ROOT).toURI(), env);
-        } catch (IOException | URISyntaxException e) {
-            LOGGER.error("Setting up filesystem failed", e);
-        } catch (FileSystemAlreadyExistsException e) {
-            LOGGER.info("Filesystem already exists");
-        }
+    private CSLStyleAdapter() throws URISyntaxException, IOException {
+        ServerPropertyService properties = ServerPropertyService.getInstance();
+        engines = new CSLEnginePool(properties.getCitationEnginesPerStyle(), properties.getCitationEngineIdleTimeout());
+        bundledStyleFiles = CSLStyleIndex.load(properties.getWorkingDirectory().resolve(CSLStyleIndex.INDEX_FILE), getStylesDirectory())
+                                         .getStyleFiles();
     }
 
-    private CSLStyleAdapter() throws URISyntaxException, IOException {
-        registerAvailableCitationStyles();
+    /**
+     * @return the directory containing the bundled styles, mounts the archive containing them if necessary
+     */
+    static synchronized Path getStylesDirectory() throws URISyntaxException, IOException {
+        URI stylesRoot = CitationStyle.class.getResource(STYLES_ROOT).toURI();
+        if ("jar".equals(stylesRoot.getScheme())) {
+            try {
+                FileSystems.newFileSystem(stylesRoot, Map.of("create", "true"));
+            } catch (FileSystemAlreadyExistsException e) {
+                LOGGER.debug("Filesystem already exists");
+            }
+        }
+        return Path.of(stylesRoot);
     }
 
-    public static CSLStyleAdapter getInstance() throws URISyntaxException, IOException {
+    public static synchronized CSLStyleAdapter getInstance() throws URISyntaxException, IOException {
         if (instance == null) {
             instance = new CSLStyleAdapter();
         }
         return instance;
     }
 
-    protected static void resetStyles() {
+    protected static synchronized void resetStyles() {
+        if (instance != null) {
+            instance.engines.close();
+        }
         instance = null;
     }
 
@@ -62,7 +85,7 @@ public class CSLStyleAdapter {
      * @return A styled Entry in HTML, if the style is not available use default style
      */
     public String generateCitation(BibEntry entry, String style) {
-        return CitationStyleGenerator.generateCitation(entry, namesToStyles.getOrDefault(style, CitationStyle.getDefault()).getSource(), CitationStyleOutputFormat.HTML, new BibDatabaseContext(), new BibEntryTypesManager());
+        return generateCitation(entry, style, CitationStyleOutputFormat.HTML);
     }
 
     /**
@@ -71,21 +94,125 @@ public class CSLStyleAdapter {
      * @return A styled Entry in HTML, if the style is not available use default style
      */
     public String generatePlainCitation(BibEntry entry, String style) {
-        return CitationStyleGenerator.generateCitation(entry, namesToStyles.getOrDefault(style, CitationStyle.getDefault()).getSource(), CitationStyleOutputFormat.TEXT, new BibDatabaseContext(), new BibEntryTypesManager());
+        return generateCitation(entry, style, CitationStyleOutputFormat.TEXT);
     }
 
-    public List<String> getRegisteredStyles() {
-        return new ArrayList<String>(namesToStyles.keySet());
+    /**
+     * @param style Expects a style from the list of styles returned by getRegisteredStyles()
+     * @return A styled Entry in the given format, if the style is not available use default style
+     */
+    public String generateCitation(BibEntry entry, String style, CitationStyleOutputFormat outputFormat) {
+        return tryGenerateCitation(entry, style, outputFormat).orElseGet(CSLStyleAdapter::getFailureMessage);
+    }
+
+    /**
+     * Like {@link #generateCitation(BibEntry, String, CitationStyleOutputFormat)}, but lets the caller tell a failure of
+     * the citation processor apart from a citation, e.g. to not cache it
+     *
+     * @return the styled entry, empty if the citation processor failed
+     */
+    public Optional<String> tryGenerateCitation(BibEntry entry, String style, CitationStyleOutputFormat outputFormat) {
+        return tryGenerateBibliography(List.of(entry), style, outputFormat).map(citations -> citations.stream().findFirst().orElse(""));
+    }
+
+    /**
+     * Renders all entries within a single citation processor session, thus the entries are sorted and numbered as one bibliography.
+     *
+     * @param style Expects a style from the list of styles returned by getRegisteredStyles()
+     * @return One styled entry per given entry in the given format, if the style is not available use default style.
+     * If the citation processor fails, e.g. due to a malformed style, a single error message as JabRef shows it in its preview.
+     */
+    public List<String> generateBibliography(List<BibEntry> entries, String style, CitationStyleOutputFormat outputFormat) {
+        return tryGenerateBibliography(entries, style, outputFormat).orElseGet(() -> List.of(getFailureMessage()));
+    }
+
+    private Optional<List<String>> tryGenerateBibliography(List<BibEntry> entries, String style, CitationStyleOutputFormat outputFormat) {
+        try {
+            return Optional.of(engines.render(entries, getStyle(style), outputFormat, new BibDatabaseContext(), ENTRY_TYPES_MANAGER));
+        } catch (IllegalStateException e) {
+            LOGGER.error("Could not generate citations in style {}", style, e);
+            return Optional.empty();
+        }
     }
 
-    private void registerAvailableCitationStyles() {
-        List<CitationStyle> styles = CitationStyle.discoverCitationStyles();
-        namesToStyles.putAll(styles.stream().collect(Collectors.toMap(CitationStyle::getTitle, citationStyle -> citationStyle)));
+    /**
+     * @return the message shown instead of citations the citation processor failed to generate, as JabRef shows it in its preview
+     */
+    public static String getFailureMessage() {
+        return Localization.lang("Cannot generate preview based on selected citation style.");
+    }
+
+    /**
+     * Whether the position of an entry in a bibliography of the style depends on the other entries,
+     * i.e., the style sorts the bibliography or numbers its entries.
+     * Styles that cannot be analyzed, e.g., dependent styles whose parent is not bundled, are assumed to be ordered.
+     *
+     * @param style Expects a style from the list of styles returned by getRegisteredStyles()
+     */
+    public boolean isOrderedBibliography(String style) {
+        try {
+            return CSLBibliographyOrder.isOrdered(getStyle(style).getSource(), this::getBundledStyleSource);
+        } catch (XMLStreamException e) {
+            LOGGER.warn("Could not determine the order of the bibliography of style {}, assuming it is ordered", style, e);
+            return true;
+        }
+    }
+
+    /**
+     * @param id the id of a style, e.g., <code>http://www.zotero.org/styles/ieee</code>, bundled style files are named after its last segment
+     * @return the source of the bundled style, empty if there is no such style
+     */
+    private Optional<String> getBundledStyleSource(String id) {
+        String fileName = id.substring(id.lastIndexOf('/') + 1) + ".csl";
+        try {
+            Path styleFile = getStylesDirectory().resolve(fileName);
+            return Files.isRegularFile(styleFile) ? Optional.of(Files.readString(styleFile)) : Optional.empty();
+        } catch (IOException | URISyntaxException | InvalidPathException e) {
+            LOGGER.warn("Could not read bundled style {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    public List<String> getRegisteredStyles() {
+        Set<String> styles = new LinkedHashSet<>(bundledStyleFiles.keySet());
+        styles.addAll(namesToStyles.keySet());
+        return new ArrayList<>(styles);
     }
 
     public CitationStyle registerCitationStyleFromFile(String citationStyleFile) throws IOException {
         CitationStyle style = CitationStyle.createCitationStyleFromFile(citationStyleFile).orElseThrow(FileNotFoundException::new);
-        namesToStyles.putIfAbsent(style.getTitle(), style);
+        // Bundled styles take precedence, as they did when all of them were registered up front
+        if (!bundledStyleFiles.containsKey(style.getTitle())) {
+            namesToStyles.putIfAbsent(style.getTitle(), style);
+        }
         return style;
     }
+
+    private CitationStyle getStyle(String style) {
+        CitationStyle citationStyle = namesToStyles.get(style);
+        if (citationStyle != null) {
+            return citationStyle;
+        }
+        String styleFile = bundledStyleFiles.get(style);
+        if (styleFile != null) {
+            // Parses each style once, even if it is requested concurrently
+            citationStyle = namesToStyles.computeIfAbsent(style, title -> CitationStyle.createCitationStyleFromFile(styleFile).orElse(null));
+            if (citationStyle != null) {
+                return citationStyle;
+            }
+            LOGGER.warn("Could not load citation style {} from {}, using default style.", style, styleFile);
+        }
+        return getDefaultStyle();
+    }
+
+    private CitationStyle getDefaultStyle() {
+        if (defaultStyle == null) {
+            synchronized (this) {
+                if (defaultStyle == null) {
+                    defaultStyle = CitationStyle.getDefault();
+                }
+            }
+        }
+        return defaultStyle;
+    }
 }
@@ -0,0 +1,157 @@
+package org.planqk.library.core.representation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.jabref.logic.citationstyle.CitationStyle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maps the titles of the bundled citation styles to their style files, so that a style only has to be parsed once it is used.
+ * <p>
+ * Building the index reads each style file up to its title only. The index is persisted together with the location,
+ * size and modification time of the archive containing the styles, and is rebuilt once the archive changes.
+ */
+class CSLStyleIndex {
+    static final String INDEX_FILE = ".csl-styles.index";
+    private static final Logger LOGGER = LoggerFactory.getLogger(CSLStyleIndex.class);
+    private static final String SOURCE_PROPERTY = "source";
+    private static final String STYLE_PREFIX = "style.";
+    private static final String STYLE_EXTENSION = ".csl";
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        // Styles reference no external entities, resolving them would only slow down reading titles
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final Map<String, String> titlesToFiles;
+
+    private CSLStyleIndex(Map<String, String> titlesToFiles) {
+        this.titlesToFiles = titlesToFiles;
+    }
+
+    /**
+     * Reads the index from the given file if it was built for the current styles, otherwise builds the index and stores it in the file.
+     * The index is not stored if the directory of the file does not exist.
+     */
+    static CSLStyleIndex load(Path indexFile, Path stylesDirectory) throws IOException {
+        String source = getStylesSource();
+        if (Files.exists(indexFile)) {
+            try {
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(indexFile)) {
+                    properties.load(reader);
+                }
+                if (source.equals(properties.getProperty(SOURCE_PROPERTY))) {
+                    return new CSLStyleIndex(properties.stringPropertyNames().stream()
+                                                       .filter(name -> name.startsWith(STYLE_PREFIX))
+                                                       .collect(Collectors.toMap(name -> properties.getProperty(name), name -> name.substring(STYLE_PREFIX.length()), (first, second) -> first)));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Could not read citation style index {}, rebuilding it.", indexFile, e);
+            }
+        }
+
+        CSLStyleIndex index = build(stylesDirectory);
+        if (Files.isDirectory(indexFile.getParent())) {
+            try {
+                index.store(indexFile, source);
+            } catch (IOException e) {
+                LOGGER.warn("Could not store citation style index {}.", indexFile, e);
+            }
+        }
+        return index;
+    }
+
+    static CSLStyleIndex build(Path stylesDirectory) throws IOException {
+        Map<String, String> titlesToFiles = new HashMap<>();
+        List<Path> styleFiles;
+        try (Stream<Path> files = Files.list(stylesDirectory)) {
+            styleFiles = files.filter(file -> file.getFileName().toString().endsWith(STYLE_EXTENSION)).collect(Collectors.toList());
+        }
+        for (Path styleFile : styleFiles) {
+            try (InputStream input = Files.newInputStream(styleFile)) {
+                readTitle(input).ifPresentOrElse(
+                        // Keep the first style of a title, as registering the styles did before
+                        title -> titlesToFiles.putIfAbsent(title, styleFile.getFileName().toString()),
+                        () -> LOGGER.warn("Citation style {} has no title.", styleFile));
+            } catch (XMLStreamException e) {
+                LOGGER.warn("Could not read citation style {}.", styleFile, e);
+            }
+        }
+        LOGGER.info("Indexed {} citation styles", titlesToFiles.size());
+        return new CSLStyleIndex(titlesToFiles);
+    }
+
+    /**
+     * @return the style titles mapped to the names of their style files
+     */
+    Map<String, String> getStyleFiles() {
+        return titlesToFiles;
+    }
+
+    private void store(Path indexFile, String source) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(SOURCE_PROPERTY, source);
+        titlesToFiles.forEach((title, file) -> properties.setProperty(STYLE_PREFIX + file, title));
+        try (Writer writer = Files.newBufferedWriter(indexFile)) {
+            properties.store(writer, "Titles of the bundled citation styles");
+        }
+    }
+
+    private static Optional<String> readTitle(InputStream input) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(input);
+        try {
+            // The title is part of the info element at the very beginning of a style
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "title".equals(reader.getLocalName())) {
+                    return Optional.of(reader.getElementText().trim());
+                }
+            }
+            return Optional.empty();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @return identifies the archive or directory the bundled styles are loaded from in its current state
+     */
+    private static String getStylesSource() {
+        CodeSource codeSource = CitationStyle.class.getProtectionDomain().getCodeSource();
+        URL location = codeSource == null ? null : codeSource.getLocation();
+        if (location == null) {
+            return "unknown";
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(Path.of(location.toURI()), BasicFileAttributes.class);
+            return location + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return location.toString();
+        }
+    }
+}
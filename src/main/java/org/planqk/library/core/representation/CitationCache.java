@@ -0,0 +1,151 @@
+package org.planqk.library.core.representation;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.types.EntryType;
+
+import org.planqk.library.core.properties.ServerPropertyService;
+
+/**
+ * Bounded cache of rendered citations, evicting the least recently used citation once it is full.
+ * <p>
+ * Citations are keyed by library, citation key, content of the entry, style and output format. The library service
+ * invalidates the citations of changed entries. As the key contains the complete content of the entry, i.e., its type
+ * and all of its fields, a citation rendered for an entry that changed concurrently is never returned for the updated entry.
+ */
+public class CitationCache {
+    private static CitationCache instance;
+
+    private final int capacity;
+    private final Map<Key, String> citations;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    CitationCache(int capacity) {
+        this.capacity = capacity;
+        this.citations = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                return size() > CitationCache.this.capacity;
+            }
+        };
+    }
+
+    public static synchronized CitationCache getInstance() {
+        if (instance == null) {
+            instance = new CitationCache(ServerPropertyService.getInstance().getCitationCacheSize());
+        }
+        return instance;
+    }
+
+    private static class Key {
+        private final Path libraryPath;
+        private final String citationKey;
+        private final EntryType entryType;
+        // A copy of the fields, which shares the values with the entry
+        private final Map<Field, String> fields;
+        private final String style;
+        private final CitationStyleOutputFormat outputFormat;
+        private final int hashCode;
+
+        Key(Path libraryPath, BibEntry entry, String style, CitationStyleOutputFormat outputFormat) {
+            this.libraryPath = libraryPath;
+            this.citationKey = entry.getCitationKey().orElse("");
+            this.entryType = entry.getType();
+            this.fields = Map.copyOf(entry.getFieldMap());
+            this.style = style;
+            this.outputFormat = outputFormat;
+            this.hashCode = Objects.hash(libraryPath, citationKey, entryType, fields, style, outputFormat);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode
+                    && libraryPath.equals(other.libraryPath)
+                    && citationKey.equals(other.citationKey)
+                    && entryType.equals(other.entryType)
+                    && style.equals(other.style)
+                    && outputFormat == other.outputFormat
+                    && fields.equals(other.fields);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Returns the cached citation of the entry, rendering and caching it if it is not cached yet.
+     * Rendering happens outside of the cache lock, so that slow citations do not block other lookups.
+     * Failed renderings are not cached, thus a temporary failure is rendered again on the next request.
+     *
+     * @param renderer returns the citation, empty if rendering failed
+     * @return the citation, empty if rendering failed
+     */
+    public Optional<String> getCitation(Path libraryPath, BibEntry entry, String style, CitationStyleOutputFormat outputFormat, Supplier<Optional<String>> renderer) {
+        Key key = new Key(libraryPath, entry, style, outputFormat);
+        synchronized (this) {
+            String citation = citations.get(key);
+            if (citation != null) {
+                hits.incrementAndGet();
+                return Optional.of(citation);
+            }
+        }
+        misses.incrementAndGet();
+        Optional<String> citation = renderer.get();
+        if (citation.isPresent()) {
+            synchronized (this) {
+                citations.put(key, citation.get());
+            }
+        }
+        return citation;
+    }
+
+    /**
+     * Removes all citations of the entries with the given citation keys in the library.
+     */
+    public synchronized void invalidate(Path libraryPath, Collection<String> citationKeys) {
+        citations.keySet().removeIf(key -> key.libraryPath.equals(libraryPath) && citationKeys.contains(key.citationKey));
+    }
+
+    /**
+     * Removes all citations of the library.
+     */
+    public synchronized void invalidate(Path libraryPath) {
+        citations.keySet().removeIf(key -> key.libraryPath.equals(libraryPath));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int getSize() {
+        return citations.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -1,22 +1,13 @@
 package org.planqk.library.core.serialization;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.Optional;
 
 import org.jabref.model.entry.BibEntry;
-import org.jabref.model.entry.field.IEEEField;
-import org.jabref.model.entry.field.SpecialField;
-import org.jabref.model.entry.field.StandardField;
-import org.jabref.model.entry.field.UnknownField;
-import org.jabref.model.entry.types.StandardEntryType;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,45 +17,27 @@ public class BibEntryJacksonDeserializer extends JsonDeserializer<BibEntry> {
     @Override
     public BibEntry deserialize(JsonParser in, DeserializationContext ctxt) throws IOException {
         BibEntry deserializedEntry = new BibEntry();
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            JsonNode node = mapper.readTree(in);
-            assert node.isObject();
-            for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
-                String field = it.next();
+            // The entry is read from the tokens of the parser, without building a tree of the object first
+            JsonToken token = in.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = in.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                throw ctxt.wrongTokenException(in, BibEntry.class, JsonToken.START_OBJECT, "Entry has to be a JSON object");
+            }
+            for (; token == JsonToken.FIELD_NAME; token = in.nextToken()) {
+                String field = in.currentName();
+                in.nextToken();
+                String value = readValue(in);
                 switch (field) {
                     case "citekey":
-                        deserializedEntry.withCitationKey(node.get(field).asText());
+                        deserializedEntry.withCitationKey(value);
                         break;
                     case "entrytype":
-                        deserializedEntry.setType(StandardEntryType.valueOf(node.get(field).asText()));
+                        deserializedEntry.setType(BibEntryNames.getEntryType(value));
                         break;
                     default:
-                        // We cannot apply an optional of Field here as e.g. Optional<StandardField> cannot be assigned to Optional<Field>
-                        Optional<StandardField> parsedField = Arrays.stream(StandardField.values())
-                                                                    .filter(e -> e.name().equalsIgnoreCase(field))
-                                                                    .findAny();
-                        if (parsedField.isPresent()) {
-                            deserializedEntry.withField(parsedField.get(), node.get(field).asText());
-                            break;
-                        }
-
-                        Optional<IEEEField> parsedIEEEField = Arrays.stream(IEEEField.values())
-                                                                    .filter(e -> e.name().equalsIgnoreCase(field))
-                                                                    .findAny();
-                        if (parsedIEEEField.isPresent()) {
-                            deserializedEntry.withField(parsedIEEEField.get(), node.get(field).asText());
-                            break;
-                        }
-                        Optional<SpecialField> parsedSpecialField = Arrays.stream(SpecialField.values())
-                                                                          .filter(e -> e.name().equalsIgnoreCase(field))
-                                                                          .findAny();
-                        if (parsedSpecialField.isPresent()) {
-                            deserializedEntry.withField(parsedSpecialField.get(), node.get(field).asText());
-                            break;
-                        }
-                        UnknownField unknownField = new UnknownField(field);
-                        deserializedEntry.withField(unknownField, node.get(field).asText());
+                        deserializedEntry.withField(BibEntryNames.getField(field), value);
                 }
             }
             deserializedEntry.setChanged(true);
@@ -74,4 +47,15 @@ public class BibEntryJacksonDeserializer extends JsonDeserializer<BibEntry> {
             throw ex;
         }
     }
+
+    /**
+     * Reads the current value as text, nested objects and arrays are skipped and read as empty text.
+     */
+    private static String readValue(JsonParser in) throws IOException {
+        if (in.currentToken().isStructStart()) {
+            in.skipChildren();
+            return "";
+        }
+        return in.getText();
+    }
 }
@@ -1,17 +1,19 @@
 package org.planqk.library.core.serialization;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Locale;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jabref.logic.TypedBibEntry;
 import org.jabref.model.database.BibDatabaseMode;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.field.Field;
 import org.jabref.model.entry.field.InternalField;
+import org.jabref.model.entry.types.EntryType;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
@@ -23,6 +25,18 @@ public class BibEntryJacksonSerializer extends StdSerializer<BibEntry> {
 
     private static final String JSON_TYPE = "entrytype";
     private static final String JSON_KEY = "citekey";
+    /**
+     * Bounds the cached field orders and names, as entries may use arbitrary fields.
+     */
+    private static final int MAX_CACHED = 1024;
+
+    /**
+     * The fields to write in order of their lower case name, per set of fields of an entry.
+     * Entries of a library mostly share a few sets of fields, so that the fields are rarely sorted.
+     */
+    private static final Map<Set<Field>, FieldName[]> FIELD_ORDERS = new ConcurrentHashMap<>();
+    private static final Map<EntryType, String> TYPE_NAMES = new ConcurrentHashMap<>();
+
     private final Logger LOGGER = LoggerFactory.getLogger(BibEntryJacksonSerializer.class);
 
     public BibEntryJacksonSerializer(Class<BibEntry> t) {
@@ -36,28 +50,71 @@ public class BibEntryJacksonSerializer extends StdSerializer<BibEntry> {
             return;
         }
         writer.writeStartObject();
-        writer.writeStringField(JSON_TYPE, new TypedBibEntry(entry, BibDatabaseMode.BIBTEX).getTypeForDisplay());
+        writer.writeStringField(JSON_TYPE, getTypeName(entry));
         writer.writeStringField(JSON_KEY, entry.getCitationKey().orElse(""));
+        Map<Field, String> values = entry.getFieldMap();
+        for (FieldName field : getFieldOrder(entry.getFields())) {
+            String value = values.get(field.field);
+            if (value != null) {
+                writer.writeStringField(field.name, normalizeLineBreaks(value));
+            }
+        }
+        writer.writeEndObject();
+    }
+
+    private static String normalizeLineBreaks(String value) {
+        return value.indexOf('\r') < 0 ? value : value.replace("\r\n", "\n");
+    }
 
-        // Grab field entries and place in map
-        Map<String, String> mapFieldToValue = new HashMap<>();
-        // determine sorted fields -- all fields lower case
-        SortedSet<String> sortedFields = new TreeSet<>();
-        for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
-            Field fieldName = field.getKey();
-            String fieldValue = field.getValue();
-            // JabRef stores the key in the field KEY_FIELD, which must not be serialized
-            if (!fieldName.equals(InternalField.KEY_FIELD)) {
-                String lowerCaseFieldName = fieldName.getName().toLowerCase(Locale.US);
-                sortedFields.add(lowerCaseFieldName);
-                mapFieldToValue.put(lowerCaseFieldName, fieldValue);
+    private static String getTypeName(BibEntry entry) {
+        String name = TYPE_NAMES.get(entry.getType());
+        if (name == null) {
+            name = new TypedBibEntry(entry, BibDatabaseMode.BIBTEX).getTypeForDisplay();
+            if (TYPE_NAMES.size() < MAX_CACHED) {
+                TYPE_NAMES.put(entry.getType(), name);
             }
         }
+        return name;
+    }
 
-        // Add to writer
-        for (String fieldName : sortedFields) {
-            writer.writeStringField(fieldName, String.valueOf(mapFieldToValue.get(fieldName)).replaceAll("\\r\\n", "\n"));
+    /**
+     * @return the fields to write, sorted by their lower case name, without the citation key and without fields of duplicate name
+     */
+    private static FieldName[] getFieldOrder(Set<Field> fields) {
+        FieldName[] order = FIELD_ORDERS.get(fields);
+        if (order != null) {
+            return order;
+        }
+        order = fields.stream()
+                      // JabRef stores the key in the field KEY_FIELD, which must not be serialized
+                      .filter(field -> !field.equals(InternalField.KEY_FIELD))
+                      .map(field -> new FieldName(field, field.getName().toLowerCase(Locale.US)))
+                      .sorted(Comparator.comparing(field -> field.name))
+                      .toArray(FieldName[]::new);
+        order = removeDuplicateNames(order);
+        if (FIELD_ORDERS.size() < MAX_CACHED) {
+            FIELD_ORDERS.put(Set.copyOf(fields), order);
+        }
+        return order;
+    }
+
+    private static FieldName[] removeDuplicateNames(FieldName[] order) {
+        int length = 0;
+        for (FieldName field : order) {
+            if (length == 0 || !order[length - 1].name.equals(field.name)) {
+                order[length++] = field;
+            }
+        }
+        return length == order.length ? order : Arrays.copyOf(order, length);
+    }
+
+    private static final class FieldName {
+        private final Field field;
+        private final String name;
+
+        private FieldName(Field field, String name) {
+            this.field = field;
+            this.name = name;
         }
-        writer.writeEndObject();
     }
 }
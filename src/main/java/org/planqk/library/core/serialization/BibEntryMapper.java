@@ -1,19 +1,54 @@
 package org.planqk.library.core.serialization;
 
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
-import org.jabref.gui.commonfxcontrols.CitationKeyPatternPanelViewModel;
 import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.InternalField;
 import org.jabref.model.entry.field.StandardField;
-import org.jabref.model.entry.types.EntryType;
-import org.jabref.model.entry.types.IEEETranEntryType;
-import org.jabref.model.entry.types.StandardEntryType;
-import org.jabref.model.entry.types.UnknownEntryType;
 
 import org.planqk.library.rest.model.BibEntryDTO;
 
 public class BibEntryMapper {
+    /**
+     * The fields of the DTO, each with accessors to its slot. The citation key is kept separately,
+     * as it is always mapped and has to be present when mapping a DTO back into an entry.
+     */
+    private static final List<Slot> SLOTS = List.of(
+            new Slot(StandardField.ADDRESS, dto -> dto.address, (dto, value) -> dto.address = value),
+            new Slot(StandardField.AUTHOR, dto -> dto.author, (dto, value) -> dto.author = value),
+            new Slot(StandardField.BOOKTITLE, dto -> dto.booktitle, (dto, value) -> dto.booktitle = value),
+            new Slot(StandardField.CHAPTER, dto -> dto.chapter, (dto, value) -> dto.chapter = value),
+            new Slot(StandardField.EDITION, dto -> dto.edition, (dto, value) -> dto.edition = value),
+            new Slot(StandardField.EDITOR, dto -> dto.editor, (dto, value) -> dto.editor = value),
+            new Slot(StandardField.HOWPUBLISHED, dto -> dto.howpublished, (dto, value) -> dto.howpublished = value),
+            new Slot(StandardField.INSTITUTION, dto -> dto.institution, (dto, value) -> dto.institution = value),
+            new Slot(StandardField.JOURNAL, dto -> dto.journal, (dto, value) -> dto.journal = value),
+            new Slot(StandardField.MONTH, dto -> dto.month, (dto, value) -> dto.month = value),
+            new Slot(StandardField.NOTE, dto -> dto.note, (dto, value) -> dto.note = value),
+            new Slot(StandardField.NUMBER, dto -> dto.number, (dto, value) -> dto.number = value),
+            new Slot(StandardField.ORGANIZATION, dto -> dto.organization, (dto, value) -> dto.organization = value),
+            new Slot(StandardField.PAGES, dto -> dto.pages, (dto, value) -> dto.pages = value),
+            new Slot(StandardField.PUBLISHER, dto -> dto.publisher, (dto, value) -> dto.publisher = value),
+            new Slot(StandardField.SCHOOL, dto -> dto.school, (dto, value) -> dto.school = value),
+            new Slot(StandardField.SERIES, dto -> dto.series, (dto, value) -> dto.series = value),
+            new Slot(StandardField.TITLE, dto -> dto.title, (dto, value) -> dto.title = value),
+            new Slot(StandardField.VOLUME, dto -> dto.volume, (dto, value) -> dto.volume = value),
+            new Slot(StandardField.YEAR, dto -> dto.year, (dto, value) -> dto.year = value),
+            new Slot(StandardField.DATE, dto -> dto.date, (dto, value) -> dto.date = value)
+    );
+    private static final Map<Field, Slot> SLOTS_BY_FIELD = new HashMap<>();
+
+    static {
+        for (Slot slot : SLOTS) {
+            SLOTS_BY_FIELD.put(slot.field, slot);
+        }
+    }
 
     /**
      * Maps the relevant standard fields of the complete entry into a DTO
@@ -22,31 +57,42 @@ public class BibEntryMapper {
     public static BibEntryDTO map(BibEntry entry) {
         BibEntryDTO mappedEntry = new BibEntryDTO();
         mappedEntry.entryType = entry.getType().getName();
-        entry.getCitationKey().ifPresent(s -> mappedEntry.citationKey = s);
-        entry.getField(StandardField.ADDRESS).ifPresent(s -> mappedEntry.address = s);
-        entry.getField(StandardField.AUTHOR).ifPresent(s -> mappedEntry.author = s);
-        entry.getField(StandardField.BOOKTITLE).ifPresent(s -> mappedEntry.booktitle = s);
-        entry.getField(StandardField.CHAPTER).ifPresent(s -> mappedEntry.chapter = s);
-        entry.getField(StandardField.EDITION).ifPresent(s -> mappedEntry.edition = s);
-        entry.getField(StandardField.EDITOR).ifPresent(s -> mappedEntry.editor = s);
-        entry.getField(StandardField.HOWPUBLISHED).ifPresent(s -> mappedEntry.howpublished = s);
-        entry.getField(StandardField.INSTITUTION).ifPresent(s -> mappedEntry.institution = s);
-        entry.getField(StandardField.JOURNAL).ifPresent(s -> mappedEntry.journal = s);
-        entry.getField(StandardField.MONTH).ifPresent(s -> mappedEntry.month = s);
-        entry.getField(StandardField.NOTE).ifPresent(s -> mappedEntry.note = s);
-        entry.getField(StandardField.NUMBER).ifPresent(s -> mappedEntry.number = s);
-        entry.getField(StandardField.ORGANIZATION).ifPresent(s -> mappedEntry.organization = s);
-        entry.getField(StandardField.PAGES).ifPresent(s -> mappedEntry.pages = s);
-        entry.getField(StandardField.PUBLISHER).ifPresent(s -> mappedEntry.publisher = s);
-        entry.getField(StandardField.SCHOOL).ifPresent(s -> mappedEntry.school = s);
-        entry.getField(StandardField.SERIES).ifPresent(s -> mappedEntry.series = s);
-        entry.getField(StandardField.TITLE).ifPresent(s -> mappedEntry.title = s);
-        entry.getField(StandardField.VOLUME).ifPresent(s -> mappedEntry.volume = s);
-        entry.getField(StandardField.YEAR).ifPresent(s -> mappedEntry.year = s);
-        entry.getField(StandardField.DATE).ifPresent(s -> mappedEntry.date = s);
+        // A single pass over the fields of the entry, instead of one lookup per field of the DTO
+        for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
+            mapField(mappedEntry, field.getKey(), field.getValue());
+        }
         return mappedEntry;
     }
 
+    /**
+     * Maps only the given fields of the entry into a DTO, entry type and citation key are always mapped.
+     * Fields that are not part of the DTO are ignored. If no fields are given, all fields are mapped.
+     */
+    public static BibEntryDTO map(BibEntry entry, Set<Field> fields) {
+        if (fields.isEmpty()) {
+            return map(entry);
+        }
+        BibEntryDTO mappedEntry = new BibEntryDTO();
+        mappedEntry.entryType = entry.getType().getName();
+        for (Map.Entry<Field, String> field : entry.getFieldMap().entrySet()) {
+            if (field.getKey() == InternalField.KEY_FIELD || fields.contains(field.getKey())) {
+                mapField(mappedEntry, field.getKey(), field.getValue());
+            }
+        }
+        return mappedEntry;
+    }
+
+    private static void mapField(BibEntryDTO mappedEntry, Field field, String value) {
+        if (field == InternalField.KEY_FIELD) {
+            mappedEntry.citationKey = value;
+            return;
+        }
+        Slot slot = SLOTS_BY_FIELD.get(field);
+        if (slot != null) {
+            slot.setter.accept(mappedEntry, value);
+        }
+    }
+
     /**
      * Maps the BibEntryDTO into a BibEntry with the fields provided by the DTO mapped into the BibEntry
      * Note that the Information provided by the DTO cannot be used to reconstruct
@@ -59,83 +105,26 @@ public class BibEntryMapper {
         if (entry.citationKey == null || entry.citationKey.isBlank()) {
             throw new IllegalArgumentException("Entry has to have a citation key");
         }
-        BibEntry mappedEntry = new BibEntry(getEntryType(entry.entryType));
+        BibEntry mappedEntry = new BibEntry(BibEntryNames.getEntryType(entry.entryType));
         mappedEntry.withCitationKey(entry.citationKey);
-        if (entry.address != null && !entry.address.isBlank()) {
-            mappedEntry.withField(StandardField.ADDRESS, entry.address);
-        }
-        if (entry.author != null && !entry.author.isBlank()) {
-            mappedEntry.withField(StandardField.AUTHOR, entry.author);
-        }
-        if (entry.booktitle != null && !entry.booktitle.isBlank()) {
-            mappedEntry.withField(StandardField.BOOKTITLE, entry.booktitle);
-        }
-        if (entry.chapter != null && !entry.chapter.isBlank()) {
-            mappedEntry.withField(StandardField.CHAPTER, entry.chapter);
-        }
-        if (entry.edition != null && !entry.edition.isBlank()) {
-            mappedEntry.withField(StandardField.EDITION, entry.edition);
-        }
-        if (entry.editor != null && !entry.editor.isBlank()) {
-            mappedEntry.withField(StandardField.EDITOR, entry.editor);
-        }
-        if (entry.howpublished != null && !entry.howpublished.isBlank()) {
-            mappedEntry.withField(StandardField.HOWPUBLISHED, entry.howpublished);
-        }
-        if (entry.institution != null && !entry.institution.isBlank()) {
-            mappedEntry.withField(StandardField.INSTITUTION, entry.institution);
-        }
-        if (entry.journal != null && !entry.journal.isBlank()) {
-            mappedEntry.withField(StandardField.JOURNAL, entry.journal);
-        }
-        if (entry.month != null && !entry.month.isBlank()) {
-            mappedEntry.withField(StandardField.MONTH, entry.month);
-        }
-        if (entry.note != null && !entry.note.isBlank()) {
-            mappedEntry.withField(StandardField.NOTE, entry.note);
-        }
-        if (entry.number != null && !entry.number.isBlank()) {
-            mappedEntry.withField(StandardField.NUMBER, entry.number);
-        }
-        if (entry.organization != null && !entry.organization.isBlank()) {
-            mappedEntry .withField(StandardField.ORGANIZATION, entry.organization);
-        }
-        if (entry.pages != null && !entry.pages.isBlank()) {
-            mappedEntry.withField(StandardField.PAGES, entry.pages);
-        }
-        if (entry.publisher != null && !entry.publisher.isBlank()) {
-            mappedEntry.withField(StandardField.PUBLISHER, entry.publisher);
-        }
-        if (entry.school != null && !entry.school.isBlank()) {
-            mappedEntry.withField(StandardField.SCHOOL, entry.school);
-        }
-        if (entry.series != null && !entry.series.isBlank()) {
-            mappedEntry.withField(StandardField.SERIES, entry.series);
-        }
-        if (entry.title != null && !entry.title.isBlank()) {
-            mappedEntry.withField(StandardField.TITLE, entry.title);
-        }
-        if (entry.volume != null && !entry.volume.isBlank()) {
-            mappedEntry.withField(StandardField.VOLUME, entry.volume);
-        }
-        if (entry.year != null && !entry.year.isBlank()) {
-            mappedEntry.withField(StandardField.YEAR, entry.year);
-        }
-        if (entry.date != null && !entry.date.isBlank()) {
-            mappedEntry.withField(StandardField.DATE, entry.date);
+        for (Slot slot : SLOTS) {
+            String value = slot.getter.apply(entry);
+            if (value != null && !value.isBlank()) {
+                mappedEntry.withField(slot.field, value);
+            }
         }
         return mappedEntry;
     }
 
-    private static EntryType getEntryType(String entryTypeAsString) {
-        Optional<StandardEntryType> standardEntryType = Arrays.stream(StandardEntryType.values()).filter(entryType -> entryType.getName().equals(entryTypeAsString)).findFirst();
-        if (standardEntryType.isPresent()) {
-            return standardEntryType.get();
-        }
-        Optional<IEEETranEntryType> ieeeEntryType = Arrays.stream(IEEETranEntryType.values()).filter(entryType ->entryType.getName().equals(entryTypeAsString)).findFirst();
-        if (ieeeEntryType.isPresent()) {
-            return ieeeEntryType.get();
+    private static final class Slot {
+        private final Field field;
+        private final Function<BibEntryDTO, String> getter;
+        private final BiConsumer<BibEntryDTO, String> setter;
+
+        private Slot(Field field, Function<BibEntryDTO, String> getter, BiConsumer<BibEntryDTO, String> setter) {
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
         }
-        return new UnknownEntryType(entryTypeAsString);
     }
 }
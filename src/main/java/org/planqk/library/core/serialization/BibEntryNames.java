@@ -0,0 +1,116 @@
+package org.planqk.library.core.serialization;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.IEEEField;
+import org.jabref.model.entry.field.SpecialField;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.field.UnknownField;
+import org.jabref.model.entry.types.EntryType;
+import org.jabref.model.entry.types.IEEETranEntryType;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.entry.types.UnknownEntryType;
+
+/**
+ * Resolves the names of fields and entry types used by the mappers and serializers, ignoring case.
+ * <p>
+ * The known names are looked up in immutable tables built once, instead of scanning the enums for every name.
+ * Fields are known by their enum constant and by their name, standard fields take precedence over IEEE and special fields.
+ * Unknown fields and entry types are interned, so that entries of a library share a single instance per unknown name.
+ */
+public final class BibEntryNames {
+    /**
+     * Bounds the interned unknown names, as they originate from client input. Beyond, new instances are created.
+     */
+    private static final int MAX_INTERNED_NAMES = 10_000;
+
+    private static final Map<String, Field> FIELDS = buildFieldTable();
+    private static final Map<String, EntryType> ENTRY_TYPES = buildEntryTypeTable();
+    private static final Map<String, Field> UNKNOWN_FIELDS = new ConcurrentHashMap<>();
+    private static final Map<String, EntryType> UNKNOWN_ENTRY_TYPES = new ConcurrentHashMap<>();
+
+    private BibEntryNames() {
+    }
+
+    /**
+     * @return the known field with the given name, otherwise an unknown field with the name as given
+     */
+    public static Field getField(String name) {
+        Field field = lookup(FIELDS, name);
+        if (field != null) {
+            return field;
+        }
+        return intern(UNKNOWN_FIELDS, name, new UnknownField(name));
+    }
+
+    /**
+     * @return the known entry type with the given name, otherwise an unknown entry type with the name as given
+     */
+    public static EntryType getEntryType(String name) {
+        EntryType entryType = lookup(ENTRY_TYPES, name);
+        if (entryType != null) {
+            return entryType;
+        }
+        return intern(UNKNOWN_ENTRY_TYPES, name, new UnknownEntryType(name));
+    }
+
+    private static <T> T lookup(Map<String, T> table, String name) {
+        // Names are lower case in almost all cases, which avoids creating a lower case copy
+        T value = table.get(name);
+        if (value == null) {
+            value = table.get(name.toLowerCase(Locale.ROOT));
+        }
+        return value;
+    }
+
+    private static <T> T intern(Map<String, T> interned, String name, T value) {
+        T existing = interned.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        if (interned.size() >= MAX_INTERNED_NAMES) {
+            return value;
+        }
+        existing = interned.putIfAbsent(name, value);
+        return existing == null ? value : existing;
+    }
+
+    private static Map<String, Field> buildFieldTable() {
+        Map<String, Field> fields = new HashMap<>();
+        for (StandardField field : StandardField.values()) {
+            fields.putIfAbsent(field.name().toLowerCase(Locale.ROOT), field);
+        }
+        for (IEEEField field : IEEEField.values()) {
+            fields.putIfAbsent(field.name().toLowerCase(Locale.ROOT), field);
+        }
+        for (SpecialField field : SpecialField.values()) {
+            fields.putIfAbsent(field.name().toLowerCase(Locale.ROOT), field);
+        }
+        // Names differing from the enum constant, e.g. the special field QUALITY is written as "qualityassured"
+        for (StandardField field : StandardField.values()) {
+            fields.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+        }
+        for (IEEEField field : IEEEField.values()) {
+            fields.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+        }
+        for (SpecialField field : SpecialField.values()) {
+            fields.putIfAbsent(field.getName().toLowerCase(Locale.ROOT), field);
+        }
+        return Map.copyOf(fields);
+    }
+
+    private static Map<String, EntryType> buildEntryTypeTable() {
+        Map<String, EntryType> entryTypes = new HashMap<>();
+        for (StandardEntryType entryType : StandardEntryType.values()) {
+            entryTypes.putIfAbsent(entryType.getName().toLowerCase(Locale.ROOT), entryType);
+        }
+        for (IEEETranEntryType entryType : IEEETranEntryType.values()) {
+            entryTypes.putIfAbsent(entryType.getName().toLowerCase(Locale.ROOT), entryType);
+        }
+        return Map.copyOf(entryTypes);
+    }
+}
@@ -1,21 +1,23 @@
 package org.planqk.library.rest.base;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
-
-import org.jabref.model.entry.BibEntry;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.planqk.library.core.properties.ServerPropertyService;
+import org.planqk.library.core.repository.EntryPage;
 import org.planqk.library.core.repository.LibraryService;
-import org.planqk.library.core.serialization.BibEntryMapper;
-import org.planqk.library.rest.model.Library;
+import org.planqk.library.core.repository.LibraryVersion;
+import org.planqk.library.rest.serialization.MediaTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,12 +31,43 @@ public class Accumulation {
         libraryService = LibraryService.getInstance(ServerPropertyService.getInstance().getWorkingDirectory());
     }
 
+    /**
+     * @param limit  the maximum number of entries to return, if set the entries are ordered by citation key
+     * @param cursor the cursor returned with the previous page
+     * @param fields comma separated list of the fields to include
+     */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public Library getAllEntries() throws IOException {
+    public Response getAllEntries(@Context Request request, @QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor, @QueryParam("fields") String fields) throws IOException {
+        return listEntries(request, limit, cursor, fields, false);
+    }
+
+    @GET
+    // Lower quality than JSON, so that JSON is preferred if the client accepts both
+    @Produces(MediaTypes.APPLICATION_NDJSON + ";qs=0.5")
+    public Response getAllEntriesAsNewlineDelimitedJson(@Context Request request, @QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor, @QueryParam("fields") String fields) throws IOException {
+        return listEntries(request, limit, cursor, fields, true);
+    }
+
+    private Response listEntries(Request request, Integer limit, String cursor, String fields, boolean newlineDelimited) throws IOException {
+        LibraryVersion version = libraryService.getAllLibrariesVersion();
+        EntityTag tag = ConditionalRequests.getEntityTag(version, EntryListing.getVariant(newlineDelimited));
+        Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, tag, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return ConditionalRequests.tag(EntryListing.respond(getEntries(limit, cursor), EntryListing.getFields(fields), newlineDelimited), tag, version)
+                                  .build();
+    }
+
+    private EntryPage getEntries(Integer limit, String cursor) throws IOException {
         try {
-            List<BibEntry> entries = libraryService.getAllEntries();
-            return new Library(entries.parallelStream().map(BibEntryMapper::map).collect(Collectors.toList()));
+            if (!EntryListing.isPaged(limit, cursor)) {
+                return EntryPage.complete(libraryService.getAllEntries());
+            }
+            return libraryService.getAllEntryPage(EntryListing.getCursor(cursor), EntryListing.getLimit(limit));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
         } catch (IOException e) {
             LOGGER.error("Error accumulating all entries.", e);
             throw e;
@@ -0,0 +1,25 @@
+package org.planqk.library.rest.base;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.planqk.library.core.representation.CitationCache;
+import org.planqk.library.rest.model.CacheStatisticsDTO;
+
+@Path("caches")
+@Tag(name = "Caches")
+public class Caches {
+
+    /**
+     * @return the number of hits and misses of the citation cache since the server started
+     */
+    @GET
+    @Path("citations")
+    @Produces(MediaType.APPLICATION_JSON)
+    public CacheStatisticsDTO getCitationCacheStatistics() {
+        CitationCache citationCache = CitationCache.getInstance();
+        return new CacheStatisticsDTO(citationCache.getHits(), citationCache.getMisses(), citationCache.getSize(), citationCache.getCapacity());
+    }
+}
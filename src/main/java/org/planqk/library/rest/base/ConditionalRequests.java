@@ -0,0 +1,42 @@
+package org.planqk.library.rest.base;
+
+import java.util.Date;
+
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.planqk.library.core.repository.LibraryVersion;
+
+/**
+ * Shared handling of <code>ETag</code> and <code>Last-Modified</code> headers, so that clients polling for changes
+ * receive <code>304 Not Modified</code> instead of the complete response.
+ * <p>
+ * The version has to be determined before the content, so that the content of a response is never older than the
+ * version it is tagged with. Responses for single entries are tagged with the version of their library as well, thus
+ * requests are answered without reading the entry if the library did not change.
+ */
+final class ConditionalRequests {
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Tags are weak, as the same version is represented e.g. with different indentation
+     *
+     * @param variant distinguishes representations of the same version, e.g. JSON and newline delimited JSON
+     */
+    static EntityTag getEntityTag(LibraryVersion version, String variant) {
+        return new EntityTag(version.getTag() + "-" + variant, true);
+    }
+
+    /**
+     * @return the response to send if the client has the given version already, null if the request has to be answered
+     */
+    static Response.ResponseBuilder evaluate(Request request, EntityTag tag, LibraryVersion version) {
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(Date.from(version.getLastModified()), tag);
+        return notModified == null ? null : notModified.tag(tag).lastModified(Date.from(version.getLastModified()));
+    }
+
+    static Response.ResponseBuilder tag(Response.ResponseBuilder response, EntityTag tag, LibraryVersion version) {
+        return response.tag(tag).lastModified(Date.from(version.getLastModified()));
+    }
+}
@@ -0,0 +1,77 @@
+package org.planqk.library.rest.base;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jabref.model.entry.field.Field;
+import org.jabref.model.entry.field.FieldFactory;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.Response;
+import org.planqk.library.core.repository.EntryPage;
+import org.planqk.library.rest.serialization.BibEntryStreamingOutput;
+
+/**
+ * Shared handling of the paging and projection parameters of endpoints listing entries.
+ */
+final class EntryListing {
+    /**
+     * Response header containing the cursor of the next page, if there is one
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private EntryListing() {
+    }
+
+    /**
+     * @return true if the request asks for a page instead of all entries
+     */
+    static boolean isPaged(Integer limit, String cursor) {
+        return limit != null || cursor != null;
+    }
+
+    static int getLimit(Integer limit) {
+        if (limit == null) {
+            return Integer.MAX_VALUE;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("The limit has to be positive.");
+        }
+        return limit;
+    }
+
+    static Optional<String> getCursor(String cursor) {
+        return Optional.ofNullable(cursor).filter(value -> !value.isBlank());
+    }
+
+    /**
+     * Parses a comma separated list of field names, e.g. <code>author,title</code>.
+     *
+     * @return the requested fields, empty if all fields are requested
+     */
+    static Set<Field> getFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(fields.split(","))
+                     .map(String::trim)
+                     .filter(field -> !field.isEmpty())
+                     .map(FieldFactory::parseField)
+                     .collect(Collectors.toSet());
+    }
+
+    static Response.ResponseBuilder respond(EntryPage page, Set<Field> fields, boolean newlineDelimited) {
+        Response.ResponseBuilder response = Response.ok(newlineDelimited ? BibEntryStreamingOutput.newlineDelimitedJson(page, fields) : BibEntryStreamingOutput.json(page, fields));
+        page.getNextCursor().ifPresent(cursor -> response.header(NEXT_CURSOR_HEADER, cursor));
+        return response;
+    }
+
+    /**
+     * @return distinguishes the representations of the same entries in the entity tag
+     */
+    static String getVariant(boolean newlineDelimited) {
+        return newlineDelimited ? "ndjson" : "json";
+    }
+}
@@ -2,6 +2,7 @@ package org.planqk.library.rest.base;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.ws.rs.Consumes;
@@ -10,10 +11,12 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.planqk.library.core.properties.ServerPropertyService;
 import org.planqk.library.core.repository.LibraryService;
+import org.planqk.library.rest.model.LibraryInfoDTO;
 import org.planqk.library.rest.model.NewLibraryDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,11 +31,20 @@ public class Libraries {
         libraryService = LibraryService.getInstance(ServerPropertyService.getInstance().getWorkingDirectory());
     }
 
+    /**
+     * @param details if set, the statistics of each library are returned instead of the library names only
+     */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<String> getLibraryNames() throws IOException {
+    public Response getLibraryNames(@QueryParam("details") boolean details) throws IOException {
         try {
-            return libraryService.getLibraryNames();
+            if (!details) {
+                return Response.ok(libraryService.getLibraryNames()).build();
+            }
+            List<LibraryInfoDTO> libraries = libraryService.getLibraryInfos().stream()
+                                                           .map(info -> new LibraryInfoDTO(info.getLibraryName(), info.getEntryCount(), info.getSize(), info.getLastModified(), info.getEncoding().name(), info.getVersion()))
+                                                           .collect(Collectors.toList());
+            return Response.ok(libraries).build();
         } catch (IOException e) {
             LOGGER.error("Error retrieving library names.", e);
             throw e;
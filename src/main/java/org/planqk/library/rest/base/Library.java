@@ -1,15 +1,26 @@
 package org.planqk.library.rest.base;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
 import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.POST;
@@ -17,18 +28,34 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.planqk.library.core.properties.ServerPropertyService;
+import org.planqk.library.core.repository.EntryInsertResult;
+import org.planqk.library.core.repository.EntryPage;
 import org.planqk.library.core.repository.LibraryService;
+import org.planqk.library.core.repository.LibraryVersion;
+import org.planqk.library.core.repository.SearchResult;
 import org.planqk.library.core.representation.CSLStyleAdapter;
 import org.planqk.library.core.serialization.BibEntryMapper;
 import org.planqk.library.rest.model.BibEntryDTO;
+import org.planqk.library.rest.model.BibliographyRequestDTO;
+import org.planqk.library.rest.model.EntryInsertResultDTO;
+import org.planqk.library.rest.model.SearchResultDTO;
+import org.planqk.library.rest.serialization.BibliographyStreamingOutput;
+import org.planqk.library.rest.serialization.MediaTypes;
+import org.planqk.library.rest.serialization.ObjectMapperContextResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class Library {
     private static final Logger LOGGER = LoggerFactory.getLogger(Library.class);
+    private static final ObjectReader NDJSON_READER = new ObjectMapperContextResolver().getContext(BibEntryDTO.class)
+                                                                                       .readerFor(BibEntryDTO.class);
     private final LibraryService libraryService;
     private final String libraryName;
 
@@ -42,11 +69,127 @@ public class Library {
         libraryService = LibraryService.getInstance(directory);
     }
 
+    /**
+     * @param limit  the maximum number of entries to return, if set the entries are ordered by citation key
+     * @param cursor the cursor returned with the previous page
+     * @param fields comma separated list of the fields to include
+     */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public org.planqk.library.rest.model.Library getLibraryEntries() throws IOException {
-        List<BibEntry> entries = libraryService.getLibraryEntries(libraryName);
-        return new org.planqk.library.rest.model.Library(entries.parallelStream().map(BibEntryMapper::map).collect(Collectors.toList()));
+    public Response getLibraryEntries(@Context Request request, @QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor, @QueryParam("fields") String fields) throws IOException {
+        return listEntries(request, limit, cursor, fields, false);
+    }
+
+    @GET
+    // Lower quality than JSON, so that JSON is preferred if the client accepts both
+    @Produces(MediaTypes.APPLICATION_NDJSON + ";qs=0.5")
+    public Response getLibraryEntriesAsNewlineDelimitedJson(@Context Request request, @QueryParam("limit") Integer limit, @QueryParam("cursor") String cursor, @QueryParam("fields") String fields) throws IOException {
+        return listEntries(request, limit, cursor, fields, true);
+    }
+
+    private Response listEntries(Request request, Integer limit, String cursor, String fields, boolean newlineDelimited) throws IOException {
+        LibraryVersion version = libraryService.getLibraryVersion(libraryName);
+        EntityTag tag = ConditionalRequests.getEntityTag(version, EntryListing.getVariant(newlineDelimited));
+        Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, tag, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return ConditionalRequests.tag(EntryListing.respond(getEntries(limit, cursor), EntryListing.getFields(fields), newlineDelimited), tag, version)
+                                  .build();
+    }
+
+    private EntryPage getEntries(Integer limit, String cursor) throws IOException {
+        if (!EntryListing.isPaged(limit, cursor)) {
+            return EntryPage.complete(libraryService.getLibraryEntries(libraryName));
+        }
+        try {
+            return libraryService.getLibraryEntryPage(libraryName, EntryListing.getCursor(cursor), EntryListing.getLimit(limit));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * @param query  query in Lucene query syntax, e.g. <code>title:quantum AND year:2020</code>
+     * @param offset the number of best matching entries to skip
+     * @param limit  the maximum number of entries to return
+     * @param fields comma separated list of the fields to include
+     */
+    @GET
+    @Path("search")
+    @Produces(MediaType.APPLICATION_JSON)
+    public SearchResultDTO searchLibrary(@QueryParam("q") String query,
+                                         @QueryParam("offset") @DefaultValue("0") int offset,
+                                         @QueryParam("limit") @DefaultValue("20") int limit,
+                                         @QueryParam("fields") String fields) throws IOException {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("No search query provided.");
+        }
+        SearchResult result;
+        try {
+            result = libraryService.searchLibrary(libraryName, query, offset, limit);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+        Set<Field> projectedFields = EntryListing.getFields(fields);
+        return new SearchResultDTO(result.getTotalHits(), result.getEntries().stream()
+                                                                .map(entry -> BibEntryMapper.map(entry, projectedFields))
+                                                                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Renders the selected entries as HTML bibliography, one citation per line.
+     *
+     * @param parallel whether large bibliographies are rendered in parallel chunks, which are sorted and numbered independently.
+     *                 Thus, it is rejected for styles sorting or numbering their bibliography.
+     */
+    @POST
+    @Path("bibliography/{cslStyle}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.TEXT_HTML)
+    public Response getBibliography(@PathParam("cslStyle") String cslStyle, @QueryParam("parallel") boolean parallel, BibliographyRequestDTO request) throws IOException, URISyntaxException {
+        return Response.ok(createBibliography(cslStyle, parallel, request, CitationStyleOutputFormat.HTML)).build();
+    }
+
+    @POST
+    @Path("bibliography/{cslStyle}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    // Lower quality than HTML, so that HTML is preferred if the client accepts both
+    @Produces(MediaType.TEXT_PLAIN + ";qs=0.5")
+    public Response getPlainBibliography(@PathParam("cslStyle") String cslStyle, @QueryParam("parallel") boolean parallel, BibliographyRequestDTO request) throws IOException, URISyntaxException {
+        return Response.ok(createBibliography(cslStyle, parallel, request, CitationStyleOutputFormat.TEXT)).build();
+    }
+
+    private BibliographyStreamingOutput createBibliography(String cslStyle, boolean parallel, BibliographyRequestDTO request, CitationStyleOutputFormat outputFormat) throws IOException, URISyntaxException {
+        // Checked before streaming starts, chunks rendered in parallel would each be sorted and numbered on their own
+        if (parallel && CSLStyleAdapter.getInstance().isOrderedBibliography(cslStyle)) {
+            throw new BadRequestException("The style " + cslStyle + " sorts or numbers its bibliography, it cannot be rendered in parallel.");
+        }
+        return new BibliographyStreamingOutput(getBibliographyEntries(request), cslStyle, outputFormat, parallel);
+    }
+
+    private List<BibEntry> getBibliographyEntries(BibliographyRequestDTO request) throws IOException {
+        if (request == null || (request.citationKeys == null && request.query == null)) {
+            return libraryService.getLibraryEntries(libraryName);
+        }
+        if (request.citationKeys != null && request.query != null) {
+            throw new BadRequestException("Either citation keys or a query can be provided, not both.");
+        }
+        if (request.query != null) {
+            try {
+                return libraryService.searchLibrary(libraryName, request.query);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage(), e);
+            }
+        }
+        Map<String, BibEntry> entries = libraryService.getLibraryEntriesMatchingCiteKeys(libraryName, request.citationKeys);
+        List<String> unknownCitationKeys = request.citationKeys.stream()
+                                                               .filter(citationKey -> !entries.containsKey(citationKey))
+                                                               .collect(Collectors.toList());
+        if (!unknownCitationKeys.isEmpty()) {
+            throw new NotFoundException("Unknown citation keys: " + String.join(", ", unknownCitationKeys));
+        }
+        return new ArrayList<>(entries.values());
     }
 
     @GET
@@ -62,6 +205,34 @@ public class Library {
         libraryService.addEntryToLibrary(libraryName, BibEntryMapper.map(bibEntry));
     }
 
+    /**
+     * Adds multiple entries with a single write of the library.
+     * Entries are either provided as JSON array or as newline delimited JSON stream.
+     */
+    @POST
+    @Path("batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<EntryInsertResultDTO> addEntriesToLibrary(List<BibEntryDTO> bibEntries) throws IOException {
+        return addEntries(bibEntries);
+    }
+
+    @POST
+    @Path("batch")
+    @Consumes(MediaTypes.APPLICATION_NDJSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<EntryInsertResultDTO> addEntriesToLibrary(InputStream bibEntries) throws IOException {
+        List<BibEntryDTO> entries = new ArrayList<>();
+        try (MappingIterator<BibEntryDTO> iterator = NDJSON_READER.readValues(bibEntries)) {
+            while (iterator.hasNextValue()) {
+                entries.add(iterator.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed entry in batch: " + e.getOriginalMessage(), e);
+        }
+        return addEntries(entries);
+    }
+
     @DELETE
     public Response deleteLibrary() throws IOException {
         if (libraryService.deleteLibrary(libraryName)) {
@@ -75,25 +246,58 @@ public class Library {
     @GET
     @Path("{citeKey}")
     @Produces(MediaType.APPLICATION_JSON)
-    public BibEntryDTO getBibEntryMatchingCiteKey(@PathParam("citeKey") String citeKey) throws IOException {
-        Optional<BibEntry> entry = libraryService.getLibraryEntryMatchingCiteKey(libraryName, citeKey);
-        if (entry.isPresent()) {
-            return BibEntryMapper.map(entry.get());
-        } else {
-            throw new NotFoundException();
+    public Response getBibEntryMatchingCiteKey(@Context Request request, @PathParam("citeKey") String citeKey) throws IOException {
+        LibraryVersion version = libraryService.getLibraryVersion(libraryName);
+        // Evaluated before the entry is read, as the version is known without reading the library
+        EntityTag tag = ConditionalRequests.getEntityTag(version, "json");
+        Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, tag, version);
+        if (notModified != null) {
+            return notModified.build();
         }
+        BibEntry entry = libraryService.getLibraryEntryMatchingCiteKey(libraryName, citeKey).orElseThrow(NotFoundException::new);
+        return ConditionalRequests.tag(Response.ok(BibEntryMapper.map(entry)), tag, version).build();
     }
 
     @GET
     @Path("{citeKey}/{cslStyle}")
     @Produces(MediaType.TEXT_HTML)
-    public String getBibEntryMatchingCiteKey(@PathParam("citeKey") String citeKey, @PathParam("cslStyle") String cslStyle) throws IOException, URISyntaxException {
-        Optional<BibEntry> entry = libraryService.getLibraryEntryMatchingCiteKey(libraryName, citeKey);
-        if (entry.isPresent()) {
-            return CSLStyleAdapter.getInstance().generateCitation(entry.get(), cslStyle);
-        } else {
-            throw new NotFoundException();
+    public Response getBibEntryMatchingCiteKey(@Context Request request, @PathParam("citeKey") String citeKey, @PathParam("cslStyle") String cslStyle) throws IOException, URISyntaxException {
+        LibraryVersion version = libraryService.getLibraryVersion(libraryName);
+        // The style is part of the path, thus the citation only changes with the library
+        EntityTag tag = ConditionalRequests.getEntityTag(version, "html");
+        Response.ResponseBuilder notModified = ConditionalRequests.evaluate(request, tag, version);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        BibEntry entry = libraryService.getLibraryEntryMatchingCiteKey(libraryName, citeKey).orElseThrow(NotFoundException::new);
+        String citation = libraryService.getCitation(libraryName, entry, cslStyle, CitationStyleOutputFormat.HTML);
+        return ConditionalRequests.tag(Response.ok(citation), tag, version).build();
+    }
+
+    private List<EntryInsertResultDTO> addEntries(List<BibEntryDTO> bibEntries) throws IOException {
+        // Entries that cannot be mapped are reported right away, all others are validated against the library by the service
+        EntryInsertResultDTO[] results = new EntryInsertResultDTO[bibEntries.size()];
+        List<BibEntry> mappedEntries = new ArrayList<>();
+        List<Integer> mappedPositions = new ArrayList<>();
+        for (int i = 0; i < bibEntries.size(); i++) {
+            BibEntryDTO bibEntry = bibEntries.get(i);
+            if (bibEntry == null) {
+                results[i] = new EntryInsertResultDTO(null, false, "Entry is empty");
+                continue;
+            }
+            try {
+                mappedEntries.add(BibEntryMapper.map(bibEntry));
+                mappedPositions.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = new EntryInsertResultDTO(bibEntry.citationKey, false, e.getMessage());
+            }
+        }
+        List<EntryInsertResult> insertResults = libraryService.addEntriesToLibrary(libraryName, mappedEntries);
+        for (int i = 0; i < insertResults.size(); i++) {
+            EntryInsertResult result = insertResults.get(i);
+            results[mappedPositions.get(i)] = new EntryInsertResultDTO(result.getCitationKey(), result.isSuccessful(), result.getError().orElse(null));
         }
+        return Arrays.asList(results);
     }
 
     @PUT
@@ -0,0 +1,11 @@
+package org.planqk.library.rest.model;
+
+import java.util.List;
+
+/**
+ * Selects the entries of a bibliography, either by citation key or by search query. If neither is set, all entries of the library are selected.
+ */
+public class BibliographyRequestDTO {
+    public List<String> citationKeys;
+    public String query;
+}
@@ -0,0 +1,15 @@
+package org.planqk.library.rest.model;
+
+public class CacheStatisticsDTO {
+    public long hits;
+    public long misses;
+    public int size;
+    public int capacity;
+
+    public CacheStatisticsDTO(long hits, long misses, int size, int capacity) {
+        this.hits = hits;
+        this.misses = misses;
+        this.size = size;
+        this.capacity = capacity;
+    }
+}
@@ -0,0 +1,16 @@
+package org.planqk.library.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EntryInsertResultDTO {
+    public String citationKey;
+    public boolean success;
+    public String error;
+
+    public EntryInsertResultDTO(String citationKey, boolean success, String error) {
+        this.citationKey = citationKey;
+        this.success = success;
+        this.error = error;
+    }
+}
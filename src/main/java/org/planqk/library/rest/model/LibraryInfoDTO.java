@@ -0,0 +1,21 @@
+package org.planqk.library.rest.model;
+
+import java.time.Instant;
+
+public class LibraryInfoDTO {
+    public String libraryName;
+    public int entryCount;
+    public long size;
+    public Instant lastModified;
+    public String encoding;
+    public long version;
+
+    public LibraryInfoDTO(String libraryName, int entryCount, long size, Instant lastModified, String encoding, long version) {
+        this.libraryName = libraryName;
+        this.entryCount = entryCount;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.encoding = encoding;
+        this.version = version;
+    }
+}
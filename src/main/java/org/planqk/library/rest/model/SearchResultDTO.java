@@ -0,0 +1,13 @@
+package org.planqk.library.rest.model;
+
+import java.util.List;
+
+public class SearchResultDTO {
+    public long totalHits;
+    public List<BibEntryDTO> bibEntries;
+
+    public SearchResultDTO(long totalHits, List<BibEntryDTO> bibEntries) {
+        this.totalHits = totalHits;
+        this.bibEntries = bibEntries;
+    }
+}
@@ -0,0 +1,14 @@
+package org.planqk.library.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudyInfoDTO {
+    public String studyName;
+    public String crawlStatus;
+
+    public StudyInfoDTO(String studyName, String crawlStatus) {
+        this.studyName = studyName;
+        this.crawlStatus = crawlStatus;
+    }
+}
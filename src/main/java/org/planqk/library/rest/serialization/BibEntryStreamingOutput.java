@@ -0,0 +1,97 @@
+package org.planqk.library.rest.serialization;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.Field;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.planqk.library.core.repository.EntryPage;
+import org.planqk.library.core.serialization.BibEntryMapper;
+import org.planqk.library.rest.model.BibEntryDTO;
+
+/**
+ * Writes entries to the response one by one, mapping each entry right before it is written.
+ * This avoids holding the mapped DTOs and the serialized response of a complete library in memory at once.
+ * <p>
+ * Entries are either written as JSON object of the form <code>{"bibEntries":[...],"nextCursor":"..."}</code>, or as newline delimited JSON with one entry per line.
+ * The cursor of the next page is only included if there is a next page.
+ */
+public class BibEntryStreamingOutput implements StreamingOutput {
+    private static final ObjectWriter ENTRY_WRITER = new ObjectMapperContextResolver().getContext(BibEntryDTO.class)
+                                                                                     .writerFor(BibEntryDTO.class)
+                                                                                     // Flushing is left to the output stream, flushing each entry results in many small writes
+                                                                                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final EntryPage page;
+    private final Set<Field> fields;
+    private final boolean newlineDelimited;
+    private final boolean prettyPrinted;
+
+    private BibEntryStreamingOutput(EntryPage page, Set<Field> fields, boolean newlineDelimited, boolean prettyPrinted) {
+        this.page = page;
+        this.fields = fields;
+        this.newlineDelimited = newlineDelimited;
+        this.prettyPrinted = prettyPrinted;
+    }
+
+    /**
+     * @param fields the fields to include, all fields if empty
+     */
+    public static BibEntryStreamingOutput json(EntryPage page, Set<Field> fields) {
+        return new BibEntryStreamingOutput(page, fields, false, false);
+    }
+
+    /**
+     * @param fields the fields to include, all fields if empty
+     */
+    public static BibEntryStreamingOutput newlineDelimitedJson(EntryPage page, Set<Field> fields) {
+        return new BibEntryStreamingOutput(page, fields, true, false);
+    }
+
+    /**
+     * @return the same output indented, newline delimited JSON is never indented as each entry has to be on a single line
+     */
+    BibEntryStreamingOutput prettyPrinted() {
+        return new BibEntryStreamingOutput(page, fields, newlineDelimited, !newlineDelimited);
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        ObjectWriter writer;
+        if (newlineDelimited) {
+            // Entries of newline delimited JSON are written on a single line each, separated by line breaks only
+            writer = ENTRY_WRITER.withRootValueSeparator((String) null);
+        } else {
+            writer = prettyPrinted ? ENTRY_WRITER.withDefaultPrettyPrinter() : ENTRY_WRITER;
+        }
+        try (JsonGenerator generator = writer.createGenerator(output, JsonEncoding.UTF8)) {
+            // The container closes the output stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (newlineDelimited) {
+                for (BibEntry entry : page.getEntries()) {
+                    writer.writeValue(generator, BibEntryMapper.map(entry, fields));
+                    generator.writeRaw('\n');
+                }
+            } else {
+                generator.writeStartObject();
+                generator.writeFieldName("bibEntries");
+                generator.writeStartArray();
+                for (BibEntry entry : page.getEntries()) {
+                    writer.writeValue(generator, BibEntryMapper.map(entry, fields));
+                }
+                generator.writeEndArray();
+                if (page.getNextCursor().isPresent()) {
+                    generator.writeStringField("nextCursor", page.getNextCursor().get());
+                }
+                generator.writeEndObject();
+            }
+        }
+    }
+}
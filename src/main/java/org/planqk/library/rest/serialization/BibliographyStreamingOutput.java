@@ -0,0 +1,103 @@
+package org.planqk.library.rest.serialization;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.model.entry.BibEntry;
+
+import jakarta.ws.rs.core.StreamingOutput;
+import org.planqk.library.core.representation.CSLStyleAdapter;
+
+/**
+ * Renders entries in a citation style and writes one citation per line.
+ * <p>
+ * By default, all entries are rendered within a single citation processor session, so that the style sorts and
+ * numbers them as one bibliography. Large bibliographies can be rendered in parallel instead, by splitting the entries
+ * into chunks that are rendered independently. Each chunk is written as soon as it and all chunks before it are rendered.
+ * As the style only sees the entries of one chunk at once, a style sorting or numbering its bibliography would sort
+ * and number every chunk on its own. Thus, only styles without an ordered bibliography may be rendered in parallel,
+ * see {@link CSLStyleAdapter#isOrderedBibliography(String)}.
+ */
+public class BibliographyStreamingOutput implements StreamingOutput {
+    // Smaller chunks do not outweigh the cost of setting up a citation processor session per chunk
+    static final int CHUNK_SIZE = 250;
+    private static final ExecutorService RENDERER = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+        Thread thread = new Thread(runnable, "bibliography-renderer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<BibEntry> entries;
+    private final String style;
+    private final CitationStyleOutputFormat outputFormat;
+    private final boolean parallel;
+
+    /**
+     * @param parallel whether bibliographies of more than {@value #CHUNK_SIZE} entries are rendered in parallel chunks
+     */
+    public BibliographyStreamingOutput(List<BibEntry> entries, String style, CitationStyleOutputFormat outputFormat, boolean parallel) {
+        this.entries = entries;
+        this.style = style;
+        this.outputFormat = outputFormat;
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        CSLStyleAdapter styleAdapter;
+        try {
+            styleAdapter = CSLStyleAdapter.getInstance();
+        } catch (URISyntaxException e) {
+            throw new IOException("Could not load citation styles", e);
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (!parallel || entries.size() <= CHUNK_SIZE) {
+            writeCitations(writer, styleAdapter.generateBibliography(entries, style, outputFormat));
+        } else {
+            writeInParallel(writer, styleAdapter);
+        }
+        writer.flush();
+    }
+
+    private void writeInParallel(Writer writer, CSLStyleAdapter styleAdapter) throws IOException {
+        List<Future<List<String>>> chunks = new ArrayList<>();
+        for (int start = 0; start < entries.size(); start += CHUNK_SIZE) {
+            List<BibEntry> chunk = entries.subList(start, Math.min(start + CHUNK_SIZE, entries.size()));
+            chunks.add(RENDERER.submit(() -> styleAdapter.generateBibliography(chunk, style, outputFormat)));
+        }
+        try {
+            for (Future<List<String>> chunk : chunks) {
+                writeCitations(writer, chunk.get());
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering bibliography");
+        } catch (ExecutionException e) {
+            throw new IOException("Could not render bibliography", e.getCause());
+        } finally {
+            // Stops rendering if the client went away or a chunk failed
+            chunks.forEach(chunk -> chunk.cancel(true));
+        }
+    }
+
+    private static void writeCitations(Writer writer, List<String> citations) throws IOException {
+        for (String citation : citations) {
+            writer.write(citation.strip());
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.planqk.library.rest.serialization;
+
+/**
+ * Media types used by the API that are not defined in {@link jakarta.ws.rs.core.MediaType}
+ */
+public final class MediaTypes {
+    /**
+     * Newline delimited JSON, one JSON document per line
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private MediaTypes() {
+    }
+}
@@ -23,7 +23,7 @@ public class ObjectMapperContextResolver implements ContextResolver<ObjectMapper
     private ObjectMapper createObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        // Responses are compact, clients may ask for indented responses, see PrettyPrintFilter
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
@@ -0,0 +1,40 @@
+package org.planqk.library.rest.serialization;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Indents JSON responses if the request sets the query parameter <code>pretty=true</code>, all other responses are compact.
+ */
+@Provider
+public class PrettyPrintFilter implements ContainerResponseFilter {
+    public static final String PRETTY_PARAMETER = "pretty";
+    private static final ObjectMapper MAPPER = new ObjectMapperContextResolver().getContext(Object.class);
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        if (!Boolean.parseBoolean(requestContext.getUriInfo().getQueryParameters().getFirst(PRETTY_PARAMETER))
+                || !responseContext.hasEntity()
+                || responseContext.getMediaType() == null
+                || !MediaType.APPLICATION_JSON_TYPE.isCompatible(responseContext.getMediaType())) {
+            return;
+        }
+        Object entity = responseContext.getEntity();
+        if (entity instanceof BibEntryStreamingOutput streamingOutput) {
+            responseContext.setEntity(streamingOutput.prettyPrinted(), responseContext.getEntityAnnotations(), responseContext.getMediaType());
+        } else if (!(entity instanceof StreamingOutput) && !(entity instanceof String)) {
+            // The mapper of the JSON provider cannot be switched per request, thus the entity is written by an indenting writer instead
+            ObjectWriter writer = MAPPER.writerFor(MAPPER.getTypeFactory().constructType(responseContext.getEntityType()))
+                                        .withDefaultPrettyPrinter()
+                                        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            responseContext.setEntity((StreamingOutput) output -> writer.writeValue(output, entity), responseContext.getEntityAnnotations(), responseContext.getMediaType());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.planqk.library.rest.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.planqk.library.core.properties.ServerPropertyService;
+
+/**
+ * Compresses response bodies with gzip or deflate, depending on the <code>Accept-Encoding</code> header of the request.
+ * <p>
+ * Compressing small bodies costs more time than it saves, thus the body is only compressed once it exceeds the
+ * configured threshold. Up to the threshold, the body is buffered before the decision is made, so that streamed
+ * responses are compressed as well.
+ */
+@Provider
+public class ResponseCompression implements WriterInterceptor {
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final int threshold = ServerPropertyService.getInstance().getCompressionThreshold();
+
+    @Context
+    private HttpHeaders requestHeaders;
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        if (threshold < 0 || context.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            context.proceed();
+            return;
+        }
+        context.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String encoding = negotiateEncoding();
+        if (encoding == null) {
+            context.proceed();
+            return;
+        }
+        ThresholdOutputStream output = new ThresholdOutputStream(context.getOutputStream(), encoding, context.getHeaders());
+        context.setOutputStream(output);
+        context.proceed();
+        output.finish();
+    }
+
+    /**
+     * @return gzip or deflate in that order of preference, null if the client accepts neither
+     */
+    private String negotiateEncoding() {
+        List<String> acceptEncodings = requestHeaders.getRequestHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncodings == null) {
+            return null;
+        }
+        boolean deflateAccepted = false;
+        for (String acceptEncoding : acceptEncodings) {
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parameters = coding.split(";");
+                String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+                if (isRejected(parameters)) {
+                    continue;
+                }
+                if (GZIP.equals(name) || "*".equals(name)) {
+                    return GZIP;
+                }
+                deflateAccepted |= DEFLATE.equals(name);
+            }
+        }
+        return deflateAccepted ? DEFLATE : null;
+    }
+
+    private static boolean isRejected(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buffers the body until it exceeds the threshold, then switches to compressing it.
+     * Flushes are ignored while buffering, as the response must not be committed before the encoding is decided.
+     */
+    private class ThresholdOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final String encoding;
+        private final MultivaluedMap<String, Object> responseHeaders;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private DeflaterOutputStream compressed;
+
+        ThresholdOutputStream(OutputStream target, String encoding, MultivaluedMap<String, Object> responseHeaders) {
+            this.target = target;
+            this.encoding = encoding;
+            this.responseHeaders = responseHeaders;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (compressed != null) {
+                compressed.write(bytes, offset, length);
+                return;
+            }
+            buffer.write(bytes, offset, length);
+            if (buffer.size() > threshold) {
+                // Nothing was written to the target yet, thus the header is still sent
+                responseHeaders.putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+                responseHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+                compressed = GZIP.equals(encoding) ? new GZIPOutputStream(target, true) : new DeflaterOutputStream(target, true);
+                buffer.writeTo(compressed);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (compressed != null) {
+                compressed.flush();
+            }
+        }
+
+        /**
+         * Writes the remaining body, leaves closing the target to the container
+         */
+        void finish() throws IOException {
+            if (compressed != null) {
+                compressed.finish();
+            } else if (buffer != null) {
+                buffer.writeTo(target);
+                buffer = null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.planqk.library.rest.slr;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.jabref.logic.importer.ParseException;
 
@@ -14,13 +15,16 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.planqk.library.core.properties.ServerPropertyService;
 import org.planqk.library.core.repository.StudyService;
+import org.planqk.library.core.repository.TaskStatus;
 import org.planqk.library.rest.base.Library;
 import org.planqk.library.rest.model.CrawlStatus;
 import org.planqk.library.rest.model.StudyDTO;
+import org.planqk.library.rest.model.StudyInfoDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,11 +38,20 @@ public class Studies {
         studyService = StudyService.getInstance(ServerPropertyService.getInstance().getWorkingDirectory());
     }
 
+    /**
+     * @param details if set, the state of the latest crawl of each study is returned as well
+     */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<String> getStudyNames() throws IOException {
+    public Response getStudyNames(@QueryParam("details") boolean details) throws IOException {
         try {
-            return studyService.getStudyNames();
+            if (!details) {
+                return Response.ok(studyService.getStudyNames()).build();
+            }
+            List<StudyInfoDTO> studies = studyService.getStudyInfos().stream()
+                                                     .map(info -> new StudyInfoDTO(info.getStudyName(), info.getCrawlStatus().map(TaskStatus::name).orElse(null)))
+                                                     .collect(Collectors.toList());
+            return Response.ok(studies).build();
         } catch (IOException e) {
             LOGGER.error("Error retrieving study names.", e);
             throw e;
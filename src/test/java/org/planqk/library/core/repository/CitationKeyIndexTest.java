@@ -0,0 +1,78 @@
+package org.planqk.library.core.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CitationKeyIndexTest {
+
+    @Test
+    public void lookupByCitationKey() {
+        BibEntry saha = getEntry("Saha2018", "Fault Detection Effectiveness");
+        BibEntry wu = getEntry("Wu2007", "SOC Testing Methodology and Practice");
+        CitationKeyIndex index = new CitationKeyIndex(List.of(saha, wu));
+
+        assertSame(saha, index.get("Saha2018").orElseThrow());
+        assertSame(wu, index.get("Wu2007").orElseThrow());
+        assertEquals(Optional.empty(), index.get("Zhu2019"));
+    }
+
+    @Test
+    public void addAndRemoveEntries() {
+        BibEntry saha = getEntry("Saha2018", "Fault Detection Effectiveness");
+        CitationKeyIndex index = new CitationKeyIndex(List.of());
+
+        index.add(saha);
+        assertTrue(index.contains("Saha2018"));
+
+        index.remove(saha);
+        assertFalse(index.contains("Saha2018"));
+    }
+
+    @Test
+    public void reportDuplicateKeys() {
+        BibEntry first = getEntry("Saha2018", "First");
+        BibEntry second = getEntry("Saha2018", "Second");
+        CitationKeyIndex index = new CitationKeyIndex(List.of(first, second, getEntry("Wu2007", "Third")));
+
+        assertEquals(Set.of("Saha2018"), index.getDuplicateKeys());
+        // The first entry in library order wins
+        assertSame(first, index.get("Saha2018").orElseThrow());
+
+        index.remove(first);
+        assertSame(second, index.get("Saha2018").orElseThrow());
+        assertEquals(Set.of(), index.getDuplicateKeys());
+    }
+
+    @Test
+    public void keepEntriesWithoutCitationKeyInLibraryOrder() {
+        BibEntry first = new BibEntry(StandardEntryType.Misc).withField(StandardField.TITLE, "First");
+        BibEntry second = new BibEntry(StandardEntryType.Misc).withField(StandardField.TITLE, "Second");
+        BibEntry third = new BibEntry(StandardEntryType.Misc).withField(StandardField.TITLE, "Third");
+        CitationKeyIndex index = new CitationKeyIndex(List.of(first, second, getEntry("Saha2018", "Keyed")));
+        index.add(third);
+
+        index.remove(second);
+
+        assertEquals(List.of(first, third), index.getEntries(""));
+        assertEquals(3, index.getOrderedEntries().size());
+        assertFalse(index.contains(""));
+    }
+
+    private BibEntry getEntry(String citationKey, String title) {
+        return new BibEntry(StandardEntryType.Article)
+                .withCitationKey(citationKey)
+                .withField(StandardField.TITLE, title);
+    }
+}
@@ -0,0 +1,79 @@
+package org.planqk.library.core.repository;
+
+import java.util.List;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactEntriesTest {
+
+    private static BibEntry createEntry(String citationKey) {
+        // New string instances, like the ones created by the parser
+        BibEntry entry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey(citationKey)
+                .withField(StandardField.JOURNAL, new String("Journal of Software Engineering"))
+                .withField(StandardField.TITLE, new String("A Title"));
+        entry.setChanged(false);
+        return entry;
+    }
+
+    @Test
+    public void shareValuesOfDictionaryFields() {
+        BibEntry first = createEntry("First");
+        BibEntry second = createEntry("Second");
+
+        new CompactEntries().compact(List.of(first, second));
+
+        assertSame(first.getField(StandardField.JOURNAL).orElseThrow(), second.getField(StandardField.JOURNAL).orElseThrow());
+        assertNotSame(first.getField(StandardField.TITLE).orElseThrow(), second.getField(StandardField.TITLE).orElseThrow());
+        assertEquals("Journal of Software Engineering", first.getField(StandardField.JOURNAL).orElseThrow());
+    }
+
+    @Test
+    public void keepDictionaryPerLibrary() {
+        BibEntry first = createEntry("First");
+        BibEntry second = createEntry("Second");
+        CompactEntries firstLibrary = new CompactEntries();
+        CompactEntries secondLibrary = new CompactEntries();
+
+        firstLibrary.compact(first);
+        secondLibrary.compact(second);
+
+        assertNotSame(first.getField(StandardField.JOURNAL).orElseThrow(), second.getField(StandardField.JOURNAL).orElseThrow());
+        assertEquals(1, firstLibrary.getDictionarySize());
+        assertEquals(1, secondLibrary.getDictionarySize());
+    }
+
+    @Test
+    public void keepChangedFlag() {
+        BibEntry unchanged = createEntry("Unchanged");
+        BibEntry changed = createEntry("Changed");
+        changed.setChanged(true);
+
+        new CompactEntries().compact(List.of(unchanged, changed));
+
+        assertFalse(unchanged.hasChanged());
+        assertTrue(changed.hasChanged());
+    }
+
+    @Test
+    public void estimateLessBytesPerEntryWhenCompacted() {
+        List<BibEntry> entries = List.of(createEntry("First"), createEntry("Second"), createEntry("Third"));
+        long before = CompactEntries.estimateBytesPerEntry(entries);
+
+        new CompactEntries().compact(entries);
+
+        // Two of the three copies of the journal, 72 bytes each, are released
+        assertEquals(before - 2 * 72 / entries.size(), CompactEntries.estimateBytesPerEntry(entries));
+        assertEquals(0, CompactEntries.estimateBytesPerEntry(List.of()));
+    }
+}
@@ -0,0 +1,38 @@
+package org.planqk.library.core.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntryPageTest {
+
+    @Test
+    public void splitEntriesSharingCitationKeyAcrossPages() {
+        List<BibEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(new BibEntry(StandardEntryType.Misc).withField(StandardField.TITLE, "Without key " + i));
+        }
+        entries.add(new BibEntry(StandardEntryType.Misc).withCitationKey("Saha2018"));
+        CitationKeyIndex index = new CitationKeyIndex(entries);
+
+        EntryPage firstPage = EntryPage.of(index.getOrderedEntries(), Optional.empty(), 2);
+        EntryPage secondPage = EntryPage.of(index.getOrderedEntries(), firstPage.getNextCursor(), 2);
+        EntryPage thirdPage = EntryPage.of(index.getOrderedEntries(), secondPage.getNextCursor(), 2);
+
+        assertEquals(entries.subList(0, 2), firstPage.getEntries());
+        assertEquals(entries.subList(2, 4), secondPage.getEntries());
+        assertEquals(entries.subList(4, 6), thirdPage.getEntries());
+        assertTrue(secondPage.getNextCursor().isPresent());
+        assertFalse(thirdPage.getNextCursor().isPresent());
+    }
+}
@@ -0,0 +1,50 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jabref.model.util.DummyFileUpdateMonitor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class LibraryCacheTest {
+
+    @Test
+    public void loadLibraryOnceForConcurrentRequests(@TempDir Path workingDir) throws Exception {
+        Path library = workingDir.resolve("lib1.bib");
+        Files.copy(getLibrary(), library, StandardCopyOption.REPLACE_EXISTING);
+        LibraryCache cache = new LibraryCache(null, null, new DummyFileUpdateMonitor());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<CachedLibrary>> requests = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                requests.add(() -> cache.get(library));
+            }
+            List<Future<CachedLibrary>> results = executor.invokeAll(requests);
+
+            CachedLibrary first = results.get(0).get();
+            for (Future<CachedLibrary> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Path getLibrary() throws URISyntaxException {
+        return Paths.get(LibraryCacheTest.class.getClassLoader().getResource("org/planqk/library/core/lib1.bib").toURI());
+    }
+}
@@ -0,0 +1,160 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.IEEETranEntryType;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.util.DummyFileUpdateMonitor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LibraryJournalTest {
+    LibraryJournal journal;
+    Path library;
+
+    @BeforeEach
+    public void setupLibrary(@TempDir Path workingDir) throws IOException, URISyntaxException {
+        Path lib1 = Paths.get(LibraryJournalTest.class.getClassLoader().getResource("org/planqk/library/core/lib1.bib").toURI());
+        library = workingDir.resolve("lib1.bib");
+        Files.copy(lib1, library, StandardCopyOption.REPLACE_EXISTING);
+        journal = new LibraryJournal();
+    }
+
+    @Test
+    public void replayChangesOnLoad() throws IOException {
+        String originalContent = Files.readString(library);
+        journal.append(library, List.of(LibraryJournal.Change.added(getNewEntry()), LibraryJournal.Change.removed("Saha2018")));
+
+        CachedLibrary loaded = new LibraryCache(journal, null, new DummyFileUpdateMonitor()).get(library);
+
+        assertEquals(getNewEntry(), loaded.getEntry("Harrer2018java").orElseThrow());
+        assertFalse(loaded.getCitationKeyIndex().contains("Saha2018"));
+        assertEquals(4, loaded.getContext().getDatabase().getEntries().size());
+        assertEquals(originalContent, Files.readString(library));
+    }
+
+    @Test
+    public void replayIsIdempotent() throws IOException {
+        BibEntry changedEntry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Saha2018")
+                .withField(StandardField.TITLE, "Changed title");
+        journal.append(library, List.of(LibraryJournal.Change.removed("Saha2018"), LibraryJournal.Change.added(changedEntry)));
+
+        CachedLibrary loaded = new LibraryCache(journal, null, new DummyFileUpdateMonitor()).get(library);
+        journal.replay(library, loaded);
+
+        assertEquals(4, loaded.getContext().getDatabase().getEntries().size());
+        assertEquals(changedEntry, loaded.getEntry("Saha2018").orElseThrow());
+    }
+
+    @Test
+    public void keepEntryTypesWithoutStandardDisplayName() throws IOException {
+        BibEntry patent = new BibEntry(IEEETranEntryType.Patent)
+                .withCitationKey("Patent2020")
+                .withField(StandardField.TITLE, "A patent");
+        journal.append(library, List.of(LibraryJournal.Change.added(patent)));
+
+        CachedLibrary loaded = new LibraryCache(journal, null, new DummyFileUpdateMonitor()).get(library);
+
+        assertEquals(IEEETranEntryType.Patent, loaded.getEntry("Patent2020").orElseThrow().getType());
+    }
+
+    @Test
+    public void stopReplayAtIncompleteChange() throws IOException {
+        journal.append(library, List.of(LibraryJournal.Change.added(getNewEntry())));
+        Files.writeString(LibraryJournal.getJournalPath(library), "{\"op\":\"remove\",\"cite", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        CachedLibrary loaded = new LibraryCache(journal, null, new DummyFileUpdateMonitor()).get(library);
+
+        assertTrue(loaded.getCitationKeyIndex().contains("Harrer2018java"));
+        assertEquals(5, loaded.getContext().getDatabase().getEntries().size());
+    }
+
+    @Test
+    public void truncateRemovesChanges() throws IOException {
+        journal.append(library, List.of(LibraryJournal.Change.added(getNewEntry())));
+        assertTrue(journal.hasChanges(library));
+
+        journal.truncate(library);
+
+        assertFalse(journal.hasChanges(library));
+        assertEquals(List.of(library), LibraryJournal.findJournaledLibraries(library.getParent()));
+    }
+
+    @Test
+    public void compactWritesChangesToLibrary() throws IOException {
+        LibraryService libraryService = LibraryService.getInstance(library.getParent(), PersistenceMode.JOURNAL, Duration.ofDays(1));
+        libraryService.addEntryToLibrary("lib1", getNewEntry());
+        libraryService.deleteEntryByCiteKey("lib1", "Saha2018");
+
+        libraryService.compactJournals();
+
+        assertFalse(journal.hasChanges(library));
+        CachedLibrary written = new LibraryCache(null, null, new DummyFileUpdateMonitor()).get(library);
+        assertEquals(getNewEntry(), written.getEntry("Harrer2018java").orElseThrow());
+        assertFalse(written.getCitationKeyIndex().contains("Saha2018"));
+        assertEquals(4, written.getContext().getDatabase().getEntries().size());
+    }
+
+    @Test
+    public void keepChangesAppendedDuringCompaction() throws Exception {
+        LibraryService libraryService = LibraryService.getInstance(library.getParent(), PersistenceMode.JOURNAL, Duration.ofDays(1));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> appends = executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    libraryService.addEntryToLibrary("lib1", new BibEntry(StandardEntryType.Misc)
+                            .withCitationKey("Concurrent" + i)
+                            .withField(StandardField.TITLE, "Entry " + i));
+                }
+                return null;
+            });
+            Future<?> compactions = executor.submit(() -> {
+                while (!appends.isDone()) {
+                    libraryService.compactJournals();
+                }
+            });
+            appends.get();
+            compactions.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        libraryService.compactJournals();
+
+        assertFalse(journal.hasChanges(library));
+        CachedLibrary written = new LibraryCache(null, null, new DummyFileUpdateMonitor()).get(library);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(written.getCitationKeyIndex().contains("Concurrent" + i));
+        }
+        assertEquals(54, written.getContext().getDatabase().getEntries().size());
+    }
+
+    private BibEntry getNewEntry() {
+        return new BibEntry(StandardEntryType.Book)
+                .withCitationKey("Harrer2018java")
+                .withField(StandardField.AUTHOR, "Harrer, S. and Lenhard, J. and Dietz, L.")
+                .withField(StandardField.DATE, "2018-03-20")
+                .withField(StandardField.TITLE, "Java by Comparison: Become a Java Craftsman in 70 Examples");
+    }
+}
@@ -0,0 +1,128 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.util.DummyFileUpdateMonitor;
+import org.jabref.preferences.JabRefPreferences;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LibraryOffsetIndexTest {
+    Path workingDir;
+    Path library;
+
+    @BeforeEach
+    public void setupLibrary(@TempDir Path workingDir) throws IOException, URISyntaxException {
+        this.workingDir = workingDir;
+        Path lib1 = Paths.get(LibraryOffsetIndexTest.class.getClassLoader().getResource("org/planqk/library/core/lib1.bib").toURI());
+        library = workingDir.resolve("lib1.bib");
+        Files.copy(lib1, library, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Test
+    public void parseSingleEntry() throws IOException {
+        LibraryOffsetIndex index = build(library).orElseThrow();
+
+        assertEquals(4, index.getKeyCount());
+        assertEquals(getZhu2019(), getEntry(index, "Zhu2019").orElseThrow());
+        assertTrue(getEntry(index, "Unknown2000").isEmpty());
+    }
+
+    @Test
+    public void skipStringsAndComments() throws IOException {
+        Path withComments = workingDir.resolve("comments.bib");
+        Files.writeString(withComments, """
+                % Encoding: UTF-8
+
+                Contact me at someone@example.org for {corrections}.
+
+                @String{acm = {Association for Computing Machinery}}
+
+                @Comment{An @Article{Fake2000, title = {Not an entry}} in a comment}
+
+                @Book{Knuth1984,
+                  title     = {The {\\TeX}book},
+                  publisher = acm,
+                }
+                """, StandardCharsets.UTF_8);
+
+        LibraryOffsetIndex index = build(withComments).orElseThrow();
+
+        assertEquals(1, index.getKeyCount());
+        assertEquals(StandardEntryType.Book, getEntry(index, "Knuth1984").orElseThrow().getType());
+    }
+
+    @Test
+    public void indexFirstEntryOfDuplicateKey() throws IOException {
+        Path withDuplicates = workingDir.resolve("duplicates.bib");
+        Files.writeString(withDuplicates, """
+                @Misc{Duplicate2020,
+                  title = {First},
+                }
+
+                @Misc{Duplicate2020,
+                  title = {Second},
+                }
+                """, StandardCharsets.UTF_8);
+
+        LibraryOffsetIndex index = build(withDuplicates).orElseThrow();
+
+        assertEquals(1, index.getKeyCount());
+        assertEquals("First", getEntry(index, "Duplicate2020").orElseThrow().getField(StandardField.TITLE).orElseThrow());
+    }
+
+    @Test
+    public void rejectParenthesesAsDelimiters() throws IOException {
+        Path withParentheses = workingDir.resolve("parentheses.bib");
+        Files.writeString(withParentheses, "@Misc(Paren2000,\n  title = {Parentheses},\n)\n", StandardCharsets.UTF_8);
+
+        assertTrue(build(withParentheses).isEmpty());
+    }
+
+    @Test
+    public void readEntriesWithoutLoadingLibrary() throws IOException {
+        LibraryService libraryService = LibraryService.getInstance(workingDir, PersistenceMode.DIRECT, Duration.ofMinutes(1), false, ReadMode.INDEXED);
+        LibraryVersion before = libraryService.getLibraryVersion("lib1");
+
+        assertEquals(getZhu2019(), libraryService.getLibraryEntryMatchingCiteKey("lib1", "Zhu2019").orElseThrow());
+
+        libraryService.deleteEntryByCiteKey("lib1", "Zhu2019");
+
+        assertTrue(libraryService.getLibraryEntryMatchingCiteKey("lib1", "Zhu2019").isEmpty());
+        assertNotEquals(before.getTag(), libraryService.getLibraryVersion("lib1").getTag());
+    }
+
+    private Optional<LibraryOffsetIndex> build(Path libraryPath) throws IOException {
+        return LibraryOffsetIndex.build(libraryPath, Files.readAttributes(libraryPath, BasicFileAttributes.class), StandardCharsets.UTF_8);
+    }
+
+    private Optional<BibEntry> getEntry(LibraryOffsetIndex index, String citationKey) throws IOException {
+        return index.getEntry(citationKey, JabRefPreferences.getInstance().getImportFormatPreferences(), new DummyFileUpdateMonitor());
+    }
+
+    private BibEntry getZhu2019() {
+        return new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Zhu2019")
+                .withField(StandardField.AUTHOR, "Hong Zhu and Ian Bayley and Dongmei Liu and Xiaoyu Zheng")
+                .withField(StandardField.DATE, "2019-12-20")
+                .withField(StandardField.TITLE, "Morphy: A Datamorphic Software Test Automation Tool");
+    }
+}
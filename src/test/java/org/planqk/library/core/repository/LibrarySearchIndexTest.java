@@ -0,0 +1,76 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LibrarySearchIndexTest {
+    LibraryService libraryService;
+
+    @BeforeEach
+    public void setupService(@TempDir Path workingDir) throws IOException, URISyntaxException {
+        libraryService = LibraryService.getInstance(workingDir);
+        Path lib1 = Paths.get(LibrarySearchIndexTest.class.getClassLoader().getResource("org/planqk/library/core/lib1.bib").toURI());
+        Files.copy(lib1, workingDir.resolve("lib1.bib"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Test
+    public void searchTitle() throws IOException {
+        assertEquals(List.of("Saha2018"), search("metamorphic"));
+    }
+
+    @Test
+    public void searchYearDerivedFromDate() throws IOException {
+        assertEquals(List.of("Zhu2019"), search("year:2019"));
+    }
+
+    @Test
+    public void searchPageByPage() throws IOException {
+        SearchResult firstPage = libraryService.searchLibrary("lib1", "testing", 0, 2);
+        SearchResult secondPage = libraryService.searchLibrary("lib1", "testing", 2, 2);
+
+        assertEquals(3, firstPage.getTotalHits());
+        assertEquals(2, firstPage.getEntries().size());
+        assertEquals(1, secondPage.getEntries().size());
+    }
+
+    @Test
+    public void searchReflectsChanges() throws IOException {
+        assertEquals(List.of(), search("craftsman"));
+
+        libraryService.addEntryToLibrary("lib1", new BibEntry(StandardEntryType.Book)
+                .withCitationKey("Harrer2018java")
+                .withField(StandardField.AUTHOR, "Harrer, S. and Lenhard, J. and Dietz, L.")
+                .withField(StandardField.TITLE, "Java by Comparison: Become a Java Craftsman in 70 Examples"));
+        assertEquals(List.of("Harrer2018java"), search("craftsman"));
+
+        libraryService.deleteEntryByCiteKey("lib1", "Harrer2018java");
+        assertEquals(List.of(), search("craftsman"));
+    }
+
+    @Test
+    public void searchWithInvalidQuery() {
+        assertThrows(IllegalArgumentException.class, () -> search("title:(testing"));
+    }
+
+    private List<String> search(String query) throws IOException {
+        return libraryService.searchLibrary("lib1", query, 0, 10).getEntries().stream()
+                             .map(entry -> entry.getCitationKey().orElse(""))
+                             .toList();
+    }
+}
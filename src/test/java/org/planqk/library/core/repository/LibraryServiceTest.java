@@ -6,8 +6,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.field.StandardField;
@@ -25,12 +31,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LibraryServiceTest {
     LibraryService libraryService;
+    Path workingDir;
     Path lib1;
     Path lib2;
 
     @BeforeEach
     public void setupService(@TempDir Path workingDir) throws IOException, URISyntaxException {
         this.libraryService = LibraryService.getInstance(workingDir);
+        this.workingDir = workingDir;
         lib1 = Paths.get(LibraryServiceTest.class.getClassLoader().getResource("org/planqk/library/core/lib1.bib").toURI());
         lib2 = Paths.get(LibraryServiceTest.class.getClassLoader().getResource("org/planqk/library/core/lib2.bib").toURI());
         Files.copy(lib1, workingDir.resolve("lib1.bib"), StandardCopyOption.REPLACE_EXISTING);
@@ -46,6 +54,49 @@ public class LibraryServiceTest {
         assertEquals(List.of("lib1.bib", "lib2.bib"), sortedNames);
     }
 
+    @Test
+    public void getLibraryInfos() throws IOException {
+        List<LibraryInfo> infos = libraryService.getLibraryInfos();
+
+        assertEquals(List.of("lib1.bib", "lib2.bib"), infos.stream().map(LibraryInfo::getLibraryName).toList());
+        assertEquals(4, infos.get(0).getEntryCount());
+        assertEquals(Files.size(workingDir.resolve("lib1.bib")), infos.get(0).getSize());
+    }
+
+    @Test
+    public void getLibraryInfosAfterChange() throws IOException {
+        LibraryInfo before = libraryService.getLibraryInfos().get(0);
+        libraryService.deleteEntryByCiteKey("lib1", "Saha2018");
+        LibraryInfo after = libraryService.getLibraryInfos().get(0);
+
+        assertEquals(3, after.getEntryCount());
+        assertTrue(after.getVersion() > before.getVersion());
+    }
+
+    @Test
+    public void getLibraryVersionChangesWithContent() throws IOException {
+        LibraryVersion before = libraryService.getLibraryVersion("lib1");
+        assertEquals(before.getTag(), libraryService.getLibraryVersion("lib1").getTag());
+
+        libraryService.deleteEntryByCiteKey("lib1", "Saha2018");
+        LibraryVersion after = libraryService.getLibraryVersion("lib1");
+        assertNotEquals(before.getTag(), after.getTag());
+        assertFalse(after.getLastModified().isBefore(before.getLastModified()));
+    }
+
+    @Test
+    public void getAllLibrariesVersionChangesWithAnyLibrary() throws IOException {
+        LibraryVersion initial = libraryService.getAllLibrariesVersion();
+        assertEquals(initial.getTag(), libraryService.getAllLibrariesVersion().getTag());
+
+        libraryService.deleteEntryByCiteKey("lib2", "Zhu2019");
+        LibraryVersion afterChange = libraryService.getAllLibrariesVersion();
+        assertNotEquals(initial.getTag(), afterChange.getTag());
+
+        libraryService.deleteLibrary("lib2");
+        assertNotEquals(afterChange.getTag(), libraryService.getAllLibrariesVersion().getTag());
+    }
+
     @Test
     public void getLibraryEntriesOnExistingLibrary() throws IOException {
         List<BibEntry> entries = libraryService.getLibraryEntries("lib1.bib");
@@ -54,6 +105,18 @@ public class LibraryServiceTest {
         assertEquals(expectedEntries, entries);
     }
 
+    @Test
+    public void getLibraryEntriesAfterExternalModification() throws IOException {
+        assertEquals(4, libraryService.getLibraryEntries("lib1").size());
+        Files.copy(lib2, workingDir.resolve("lib1.bib"), StandardCopyOption.REPLACE_EXISTING);
+
+        List<String> citationKeys = libraryService.getLibraryEntries("lib1").stream()
+                                                  .map(bibEntry -> bibEntry.getCitationKey().orElse(""))
+                                                  .sorted()
+                                                  .toList();
+        assertEquals(List.of("Kafton2002", "Nigh2002", "Sanchez2016", "Zhu2019"), citationKeys);
+    }
+
     @Test
     public void getLibraryEntriesOnNonExistingLibrary() {
         assertThrows(IOException.class, () -> libraryService.getLibraryEntries("nonexistinglibrary.bib"));
@@ -103,6 +166,51 @@ public class LibraryServiceTest {
         assertEquals(expected, currentEntries);
     }
 
+    @Test
+    public void addMultipleEntriesToLibrary() throws IOException {
+        BibEntry newEntry = new BibEntry(StandardEntryType.Book)
+                .withCitationKey("Harrer2018java")
+                .withField(StandardField.AUTHOR, "Harrer, S. and Lenhard, J. and Dietz, L.")
+                .withField(StandardField.DATE, "2018-03-20")
+                .withField(StandardField.TITLE, "Java by Comparison: Become a Java Craftsman in 70 Examples");
+        BibEntry existingKey = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Saha2018")
+                .withField(StandardField.TITLE, "Duplicate");
+        BibEntry repeatedKey = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Harrer2018java")
+                .withField(StandardField.TITLE, "Duplicate");
+
+        List<EntryInsertResult> results = libraryService.addEntriesToLibrary("lib1", List.of(newEntry, existingKey, repeatedKey));
+
+        assertEquals(List.of(true, false, false), results.stream().map(EntryInsertResult::isSuccessful).toList());
+        List<BibEntry> currentEntries = libraryService.getLibraryEntries("lib1");
+        currentEntries.sort(Comparator.comparing(o -> o.getCitationKey().orElse("")));
+        assertEquals(getModifiedEntriesLib1(), currentEntries);
+    }
+
+    @Test
+    public void concurrentAddsDoNotLoseEntries() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> additions = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String library = i % 2 == 0 ? "lib1" : "lib2";
+            BibEntry newEntry = new BibEntry(StandardEntryType.Article)
+                    .withCitationKey("Concurrent" + i)
+                    .withField(StandardField.TITLE, "Entry " + i);
+            additions.add(executor.submit(() -> {
+                libraryService.addEntryToLibrary(library, newEntry);
+                return null;
+            }));
+        }
+        for (Future<?> addition : additions) {
+            addition.get();
+        }
+        executor.shutdown();
+
+        assertEquals(14, libraryService.getLibraryEntries("lib1").size());
+        assertEquals(14, libraryService.getLibraryEntries("lib2").size());
+    }
+
     @Test
     public void getAllEntriesLib1Lib2() throws IOException {
         List<BibEntry> result = libraryService.getAllEntries();
@@ -111,6 +219,56 @@ public class LibraryServiceTest {
         assertEquals(getMergedEntries(), result);
     }
 
+    @Test
+    public void getAllEntriesAfterChangeOfLibrary() throws IOException {
+        assertEquals(6, libraryService.getAllEntries().size());
+
+        BibEntry newEntry = new BibEntry(StandardEntryType.Book)
+                .withCitationKey("Harrer2018java")
+                .withField(StandardField.TITLE, "Java by Comparison: Become a Java Craftsman in 70 Examples");
+        libraryService.addEntryToLibrary("lib1", newEntry);
+        libraryService.deleteEntryByCiteKey("lib2", "Kafton2002");
+
+        List<String> citationKeys = getCitationKeys(libraryService.getAllEntries()).stream().sorted().toList();
+        assertEquals(List.of("Harrer2018java", "Nigh2002", "Saha2018", "Sanchez2016", "Wu2007", "Zhu2019"), citationKeys);
+    }
+
+    @Test
+    public void getLibraryEntriesPageByPage() throws IOException {
+        EntryPage firstPage = libraryService.getLibraryEntryPage("lib1", Optional.empty(), 3);
+        assertEquals(List.of("Saha2018", "Sanchez2016", "Wu2007"), getCitationKeys(firstPage.getEntries()));
+        assertTrue(firstPage.getNextCursor().isPresent());
+
+        EntryPage secondPage = libraryService.getLibraryEntryPage("lib1", firstPage.getNextCursor(), 3);
+        assertEquals(List.of("Zhu2019"), getCitationKeys(secondPage.getEntries()));
+        assertFalse(secondPage.getNextCursor().isPresent());
+    }
+
+    @Test
+    public void getLibraryEntryPageAfterRemovalOfLastEntry() throws IOException {
+        EntryPage firstPage = libraryService.getLibraryEntryPage("lib1", Optional.empty(), 2);
+        libraryService.deleteEntryByCiteKey("lib1", "Sanchez2016");
+
+        EntryPage secondPage = libraryService.getLibraryEntryPage("lib1", firstPage.getNextCursor(), 2);
+        assertEquals(List.of("Wu2007", "Zhu2019"), getCitationKeys(secondPage.getEntries()));
+    }
+
+    @Test
+    public void getLibraryEntryPageWithMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> libraryService.getLibraryEntryPage("lib1", Optional.of("not base64!"), 2));
+    }
+
+    @Test
+    public void getAllEntriesPageByPage() throws IOException {
+        EntryPage firstPage = libraryService.getAllEntryPage(Optional.empty(), 4);
+        EntryPage secondPage = libraryService.getAllEntryPage(firstPage.getNextCursor(), 4);
+
+        List<BibEntry> result = new ArrayList<>(firstPage.getEntries());
+        result.addAll(secondPage.getEntries());
+        assertEquals(getMergedEntries(), result);
+        assertFalse(secondPage.getNextCursor().isPresent());
+    }
+
     @Test
     public void getEntryInLibrary() throws IOException {
         for (BibEntry bibEntry : getEntriesLib1()) {
@@ -119,6 +277,13 @@ public class LibraryServiceTest {
         }
     }
 
+    @Test
+    public void getEntriesMatchingCiteKeysInGivenOrder() throws IOException {
+        Map<String, BibEntry> entries = libraryService.getLibraryEntriesMatchingCiteKeys("lib1", List.of("Wu2007", "Unknown", "Saha2018"));
+        assertEquals(List.of("Wu2007", "Saha2018"), new ArrayList<>(entries.keySet()));
+        assertEquals(libraryService.getLibraryEntryMatchingCiteKey("lib1", "Wu2007").orElseThrow(), entries.get("Wu2007"));
+    }
+
     @Test
     public void updateEntryInLibrary() throws IOException {
         BibEntry currentVersion = libraryService.getLibraryEntryMatchingCiteKey("lib1","Saha2018").orElseThrow();
@@ -136,6 +301,33 @@ public class LibraryServiceTest {
                 libraryService.getLibraryEntryMatchingCiteKey("lib1", "Saha2018").orElseThrow().getField(StandardField.DATE).orElse(""));
     }
 
+    @Test
+    public void updateEntryWithChangedCitationKey() throws IOException {
+        BibEntry renamedEntry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Saha2018metamorphic")
+                .withField(StandardField.AUTHOR, "Prashanta Saha and Upulee Kanewala")
+                .withField(StandardField.DATE, "2018-02-20")
+                .withField(StandardField.TITLE, "Fault Detection Effectiveness of Source Test Case Generation Strategies for Metamorphic Testing");
+        libraryService.updateEntry("lib1", "Saha2018", renamedEntry);
+
+        assertTrue(libraryService.getLibraryEntryMatchingCiteKey("lib1", "Saha2018").isEmpty());
+        assertEquals(renamedEntry, libraryService.getLibraryEntryMatchingCiteKey("lib1", "Saha2018metamorphic").orElseThrow());
+        assertEquals(4, libraryService.getLibraryEntries("lib1").size());
+    }
+
+    @Test
+    public void updateEntryToExistingCitationKeyKeepsEntry() throws IOException {
+        BibEntry currentVersion = libraryService.getLibraryEntryMatchingCiteKey("lib1", "Saha2018").orElseThrow();
+        BibEntry clashingEntry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Wu2007")
+                .withField(StandardField.TITLE, "Clashing title");
+
+        assertThrows(IllegalArgumentException.class, () -> libraryService.updateEntry("lib1", "Saha2018", clashingEntry));
+
+        assertEquals(currentVersion, libraryService.getLibraryEntryMatchingCiteKey("lib1", "Saha2018").orElseThrow());
+        assertEquals(getEntriesLib1().get(2), libraryService.getLibraryEntryMatchingCiteKey("lib1", "Wu2007").orElseThrow());
+    }
+
     @Test
     public void deleteEntryInLibrary() throws IOException {
         List<BibEntry> entriesWithCiteKeyToDelete = libraryService.getLibraryEntries("lib1").stream()
@@ -234,4 +426,10 @@ public class LibraryServiceTest {
                 .withField(StandardField.TITLE, "Morphy: A Datamorphic Software Test Automation Tool");
         return List.of(entry1, entry2, entry3, entry4, entry5, entry6);
     }
+
+    private List<String> getCitationKeys(List<BibEntry> entries) {
+        return entries.stream()
+                      .map(bibEntry -> bibEntry.getCitationKey().orElse(""))
+                      .toList();
+    }
 }
@@ -0,0 +1,124 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.util.DummyFileUpdateMonitor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LibrarySnapshotTest {
+    LibrarySnapshot snapshot;
+    Path library;
+
+    @BeforeEach
+    public void setupLibrary(@TempDir Path workingDir) throws IOException, URISyntaxException {
+        Path lib1 = Paths.get(LibrarySnapshotTest.class.getClassLoader().getResource("org/planqk/library/core/lib1.bib").toURI());
+        library = workingDir.resolve("lib1.bib");
+        Files.copy(lib1, library, StandardCopyOption.REPLACE_EXISTING);
+        snapshot = new LibrarySnapshot(new DummyFileUpdateMonitor());
+    }
+
+    @Test
+    public void takeSnapshotWhenParsing() throws IOException {
+        new LibraryCache(null, snapshot, new DummyFileUpdateMonitor()).get(library);
+
+        assertTrue(Files.exists(LibrarySnapshot.getSnapshotPath(library)));
+    }
+
+    @Test
+    public void loadSameEntriesFromSnapshot() throws IOException {
+        List<BibEntry> parsed = new LibraryCache(null, snapshot, new DummyFileUpdateMonitor()).get(library).getContext().getDatabase().getEntries();
+
+        BibDatabaseContext loaded = snapshot.read(library, readAttributes()).orElseThrow();
+
+        assertEquals(parsed, loaded.getDatabase().getEntries());
+        assertEquals(parsed.get(0).getParsedSerialization(), loaded.getDatabase().getEntries().get(0).getParsedSerialization());
+        assertFalse(loaded.getDatabase().getEntries().get(0).hasChanged());
+    }
+
+    @Test
+    public void ignoreSnapshotAfterLibraryChanged() throws IOException {
+        new LibraryCache(null, snapshot, new DummyFileUpdateMonitor()).get(library);
+        Files.writeString(library, "\n@Misc{Added2022,\n  title = {Added},\n}\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertTrue(snapshot.read(library, readAttributes()).isEmpty());
+        assertEquals(5, new LibraryCache(null, snapshot, new DummyFileUpdateMonitor()).get(library).getContext().getDatabase().getEntries().size());
+    }
+
+    @Test
+    public void ignoreSnapshotIfModificationTimeChanged() throws IOException {
+        new LibraryCache(null, snapshot, new DummyFileUpdateMonitor()).get(library);
+        Files.setLastModifiedTime(library, FileTime.fromMillis(Files.getLastModifiedTime(library).toMillis() + 10_000));
+
+        assertTrue(snapshot.read(library, readAttributes()).isEmpty());
+    }
+
+    @Test
+    public void loadSavedLibraryFromSnapshot(@TempDir Path restartDir) throws Exception {
+        LibraryService libraryService = LibraryService.getInstance(library.getParent(), PersistenceMode.DIRECT, Duration.ofMinutes(1), true, ReadMode.CACHED);
+        libraryService.addEntryToLibrary("lib1", new BibEntry(StandardEntryType.Misc)
+                .withCitationKey("Added2022")
+                .withField(StandardField.TITLE, "Added"));
+
+        // The snapshot is taken in the background after the library was saved
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (snapshot.read(library, readAttributes()).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        // Copied out of reach of the service, then blanked keeping size and modification time,
+        // thus the library can only be loaded from its snapshot
+        Path restartedLibrary = Files.createDirectories(restartDir.resolve("restarted")).resolve("lib1.bib");
+        Files.copy(library, restartedLibrary, StandardCopyOption.COPY_ATTRIBUTES);
+        Files.copy(LibrarySnapshot.getSnapshotPath(library), LibrarySnapshot.getSnapshotPath(restartedLibrary));
+        FileTime lastModified = Files.getLastModifiedTime(restartedLibrary);
+        Files.writeString(restartedLibrary, " ".repeat((int) Files.size(restartedLibrary)), StandardCharsets.US_ASCII);
+        Files.setLastModifiedTime(restartedLibrary, lastModified);
+
+        CachedLibrary restarted = new LibraryCache(null, new LibrarySnapshot(new DummyFileUpdateMonitor()), new DummyFileUpdateMonitor()).get(restartedLibrary);
+
+        assertEquals(5, restarted.getContext().getDatabase().getEntries().size());
+        assertTrue(restarted.getCitationKeyIndex().contains("Added2022"));
+    }
+
+    @Test
+    public void keepCommentsBeforeEntries() throws IOException {
+        Files.writeString(library, "% A comment on the entry\n@Misc{Commented2022,\n  title = {Commented},\n}\n", StandardCharsets.UTF_8);
+        List<BibEntry> parsed = new LibraryCache(null, snapshot, new DummyFileUpdateMonitor()).get(library).getContext().getDatabase().getEntries();
+
+        BibEntry loaded = snapshot.read(library, readAttributes()).orElseThrow().getDatabase().getEntries().get(0);
+
+        assertEquals(parsed.get(0).getUserComments(), loaded.getUserComments());
+        assertTrue(loaded.getUserComments().contains("A comment on the entry"));
+    }
+
+    @Test
+    public void ignoreMissingSnapshot() throws IOException {
+        assertTrue(snapshot.read(library, readAttributes()).isEmpty());
+    }
+
+    private BasicFileAttributes readAttributes() throws IOException {
+        return Files.readAttributes(library, BasicFileAttributes.class);
+    }
+}
@@ -46,6 +46,18 @@ public class StudyServiceTest {
         assertEquals(Set.of("TestStudy", "TestStudy2"), studyNames);
     }
 
+    @Test
+    public void getStudyInfosWithoutCrawl() throws IOException {
+        StudyService service = StudyService.getInstance(workDir);
+        service.createStudy(getStudyDefinition("TestStudy"));
+
+        List<StudyInfo> infos = service.getStudyInfos();
+
+        assertEquals(1, infos.size());
+        assertEquals("TestStudy", infos.get(0).getStudyName());
+        assertTrue(infos.get(0).getCrawlStatus().isEmpty());
+    }
+
     @Test
     public void deleteStudy() throws IOException {
         StudyService service = StudyService.getInstance(workDir);
@@ -58,6 +70,18 @@ public class StudyServiceTest {
         assertFalse(Files.exists(studiesDir.resolve("TestStudy")));
     }
 
+    @Test
+    public void ignoreServiceFilesInStudyRepository() throws IOException {
+        Path studyDir = Files.createDirectories(workDir.resolve("TestStudy"));
+        Files.writeString(studyDir.resolve(".gitignore"), "*.sav");
+
+        StudyService.ignoreServiceFiles(studyDir);
+        StudyService.ignoreServiceFiles(studyDir);
+
+        assertEquals(List.of("*.sav", "*.journal", "*.snapshot", "*.snapshot*.tmp", "/.search/"),
+                Files.readAllLines(studyDir.resolve(".gitignore")));
+    }
+
     public Study getStudyDefinition(String studyName) {
         Study study = new Study();
         study.setTitle(studyName);
@@ -0,0 +1,77 @@
+package org.planqk.library.core.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WatchingFileUpdateMonitorTest {
+    WatchingFileUpdateMonitor monitor;
+    Path directory;
+
+    @BeforeEach
+    public void setupMonitor(@TempDir Path directory) throws IOException {
+        // A quiet period far longer than the writes of a test take, so that each test observes a single burst
+        this.monitor = new WatchingFileUpdateMonitor(Duration.ofSeconds(5), Duration.ofSeconds(30));
+        this.directory = directory;
+    }
+
+    @AfterEach
+    public void shutdownMonitor() {
+        monitor.shutdown();
+    }
+
+    @Test
+    public void notifyFileListenerAfterModification() throws IOException, InterruptedException {
+        Path library = Files.writeString(directory.resolve("lib.bib"), "");
+        CountDownLatch updated = new CountDownLatch(1);
+        monitor.addListenerForFile(library, updated::countDown);
+
+        Files.writeString(library, "@Misc{key,}");
+
+        assertTrue(updated.await(60, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void notifyDirectoryListenerOnceForBurstOfChanges() throws IOException, InterruptedException {
+        Set<Path> changedFiles = ConcurrentHashMap.newKeySet();
+        AtomicInteger notifications = new AtomicInteger();
+        CountDownLatch updated = new CountDownLatch(1);
+        monitor.addDirectoryListener(directory, new WatchingFileUpdateMonitor.DirectoryUpdateListener() {
+            @Override
+            public void filesUpdated(Set<Path> files) {
+                changedFiles.addAll(files);
+                notifications.incrementAndGet();
+                updated.countDown();
+            }
+
+            @Override
+            public void eventsLost() {
+                updated.countDown();
+            }
+        });
+
+        Path created = Files.writeString(directory.resolve("new.bib"), "");
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(created, "@Misc{key" + i + ",}");
+        }
+        Files.delete(created);
+
+        assertTrue(updated.await(60, TimeUnit.SECONDS));
+        assertEquals(Set.of(directory.toAbsolutePath().normalize().resolve("new.bib")), changedFiles);
+        assertEquals(1, notifications.get());
+    }
+}
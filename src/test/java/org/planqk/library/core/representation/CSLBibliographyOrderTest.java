@@ -0,0 +1,73 @@
+package org.planqk.library.core.representation;
+
+import java.util.Optional;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CSLBibliographyOrderTest {
+    private static final String PARENT_ID = "http://www.zotero.org/styles/parent";
+
+    @Test
+    public void sortedBibliographyIsOrdered() throws XMLStreamException {
+        String style = getStyle("""
+                <bibliography>
+                  <sort><key variable="author"/></sort>
+                  <layout><text variable="title"/></layout>
+                </bibliography>""");
+
+        assertTrue(CSLBibliographyOrder.isOrdered(style, id -> Optional.empty()));
+    }
+
+    @Test
+    public void unsortedBibliographyIsNotOrdered() throws XMLStreamException {
+        String style = getStyle("""
+                <citation>
+                  <sort><key variable="issued"/></sort>
+                  <layout><text variable="citation-number"/></layout>
+                </citation>
+                <bibliography>
+                  <layout><text variable="title"/></layout>
+                </bibliography>""");
+
+        assertFalse(CSLBibliographyOrder.isOrdered(style, id -> Optional.empty()));
+    }
+
+    @Test
+    public void bibliographyNumberedThroughMacroIsOrdered() throws XMLStreamException {
+        String style = getStyle("""
+                <macro name="number"><text variable="citation-number" prefix="["/></macro>
+                <macro name="label"><text macro="number"/></macro>
+                <bibliography>
+                  <layout><text macro="label"/><text variable="title"/></layout>
+                </bibliography>""");
+
+        assertTrue(CSLBibliographyOrder.isOrdered(style, id -> Optional.empty()));
+    }
+
+    @Test
+    public void dependentStyleUsesBibliographyOfParent() throws XMLStreamException {
+        String dependentStyle = """
+                <style xmlns="http://purl.org/net/xbiblio/csl" class="in-text" version="1.0">
+                  <info><link href="%s" rel="independent-parent"/></info>
+                </style>""".formatted(PARENT_ID);
+        String sortedParent = getStyle("<bibliography><sort><key variable=\"author\"/></sort><layout/></bibliography>");
+        String unsortedParent = getStyle("<bibliography><layout/></bibliography>");
+
+        assertTrue(CSLBibliographyOrder.isOrdered(dependentStyle, id -> Optional.of(sortedParent).filter(parent -> PARENT_ID.equals(id))));
+        assertFalse(CSLBibliographyOrder.isOrdered(dependentStyle, id -> Optional.of(unsortedParent).filter(parent -> PARENT_ID.equals(id))));
+        assertTrue(CSLBibliographyOrder.isOrdered(dependentStyle, id -> Optional.empty()));
+    }
+
+    private static String getStyle(String content) {
+        return """
+                <style xmlns="http://purl.org/net/xbiblio/csl" class="in-text" version="1.0">
+                  <info><title>Test</title></info>
+                %s
+                </style>""".formatted(content);
+    }
+}
@@ -0,0 +1,86 @@
+package org.planqk.library.core.representation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jabref.logic.citationstyle.CitationStyle;
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.model.database.BibDatabaseContext;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.BibEntryTypesManager;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CSLEnginePoolTest {
+    private static final CitationStyle STYLE = CitationStyle.getDefault();
+
+    private CSLEnginePool pool;
+
+    @AfterEach
+    public void closePool() {
+        pool.close();
+    }
+
+    @Test
+    public void reusesEngineOfStyle() {
+        pool = new CSLEnginePool(2, Duration.ofMinutes(5));
+        List<String> first = render(CitationStyleOutputFormat.TEXT);
+        List<String> second = render(CitationStyleOutputFormat.TEXT);
+        assertEquals(first, second);
+        assertEquals(1, pool.getIdleEngineCount());
+    }
+
+    @Test
+    public void keepsEnginesPerOutputFormat() {
+        pool = new CSLEnginePool(2, Duration.ofMinutes(5));
+        render(CitationStyleOutputFormat.TEXT);
+        render(CitationStyleOutputFormat.HTML);
+        assertEquals(2, pool.getIdleEngineCount());
+    }
+
+    @Test
+    public void boundsEnginesPerStyle() throws Exception {
+        pool = new CSLEnginePool(2, Duration.ofMinutes(5));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                results.add(executor.submit(() -> render(CitationStyleOutputFormat.TEXT)));
+            }
+            for (Future<List<String>> result : results) {
+                assertTrue(result.get().get(0).contains("Fault Detection Effectiveness"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(pool.getIdleEngineCount() <= 2);
+    }
+
+    @Test
+    public void evictsIdleEngines() {
+        pool = new CSLEnginePool(2, Duration.ZERO);
+        render(CitationStyleOutputFormat.TEXT);
+        pool.evictIdleEngines();
+        assertEquals(0, pool.getIdleEngineCount());
+        assertEquals(0, pool.getPoolCount());
+    }
+
+    private List<String> render(CitationStyleOutputFormat outputFormat) {
+        BibEntry entry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Saha2018")
+                .withField(StandardField.AUTHOR, "Prashanta Saha and Upulee Kanewala")
+                .withField(StandardField.DATE, "2018-02-20")
+                .withField(StandardField.TITLE, "Fault Detection Effectiveness of Source Test Case Generation Strategies for Metamorphic Testing");
+        return pool.render(List.of(entry), STYLE, outputFormat, new BibDatabaseContext(), new BibEntryTypesManager());
+    }
+}
@@ -7,9 +7,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.jabref.logic.citationstyle.CitationStyle;
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.field.StandardField;
 import org.jabref.model.entry.types.StandardEntryType;
@@ -21,6 +23,7 @@ import org.planqk.library.core.repository.LibraryServiceTest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class CSLStyleAdapterTest {
     @TempDir
@@ -69,6 +72,26 @@ public class CSLStyleAdapterTest {
         assertNotEquals(adapter.generateCitation(getEntry(), "IEEE"), adapter.generateCitation(getEntry(), "ACM SIGGRAPH"));
     }
 
+    @Test
+    public void generateBibliographyNumbersEntries() throws IOException, URISyntaxException {
+        BibEntry secondEntry = new BibEntry(StandardEntryType.Article)
+                .withCitationKey("Zhu2019")
+                .withField(StandardField.AUTHOR, "Hong Zhu and Ian Bayley")
+                .withField(StandardField.DATE, "2019-12-20")
+                .withField(StandardField.TITLE, "Morphy: A Datamorphic Software Test Automation Tool");
+        List<String> bibliography = CSLStyleAdapter.getInstance().generateBibliography(List.of(getEntry(), secondEntry), "IEEE", CitationStyleOutputFormat.TEXT);
+        assertEquals(2, bibliography.size());
+        assertTrue(bibliography.get(0).strip().startsWith("[1]"));
+        assertTrue(bibliography.get(1).strip().startsWith("[2]"));
+    }
+
+    @Test
+    public void numberedAndSortedStylesHaveOrderedBibliography() throws IOException, URISyntaxException {
+        CSLStyleAdapter adapter = CSLStyleAdapter.getInstance();
+        assertTrue(adapter.isOrderedBibliography("IEEE"));
+        assertTrue(adapter.isOrderedBibliography("American Psychological Association 6th edition"));
+    }
+
     private BibEntry getEntry() {
         return new BibEntry(StandardEntryType.Article)
                 .withCitationKey("Saha2018")
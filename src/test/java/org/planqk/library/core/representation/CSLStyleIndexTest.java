@@ -0,0 +1,55 @@
+package org.planqk.library.core.representation;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.planqk.library.core.repository.LibraryServiceTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CSLStyleIndexTest {
+    private static final String TITLE = "ACM SIG Proceedings (\"et al.\" for 3+ authors)";
+
+    @TempDir
+    Path workingDir;
+    Path stylesDir;
+
+    @BeforeEach
+    public void setupStyles() throws URISyntaxException, IOException {
+        stylesDir = Files.createDirectory(workingDir.resolve("styles"));
+        Path styleSource = Paths.get(LibraryServiceTest.class.getClassLoader().getResource("org/planqk/library/core/acm-sig-proceedings.csl").toURI());
+        Files.copy(styleSource, stylesDir.resolve("acm-sig-proceedings.csl"));
+        Files.writeString(stylesDir.resolve("readme.txt"), "not a style");
+    }
+
+    @Test
+    public void buildReadsTitles() throws IOException {
+        assertEquals(Map.of(TITLE, "acm-sig-proceedings.csl"), CSLStyleIndex.build(stylesDir).getStyleFiles());
+    }
+
+    @Test
+    public void loadReusesStoredIndex() throws IOException {
+        Path indexFile = workingDir.resolve(CSLStyleIndex.INDEX_FILE);
+        CSLStyleIndex.load(indexFile, stylesDir);
+        assertTrue(Files.exists(indexFile));
+
+        // The stored index is used as long as the bundled styles did not change
+        Files.delete(stylesDir.resolve("acm-sig-proceedings.csl"));
+        assertEquals(Map.of(TITLE, "acm-sig-proceedings.csl"), CSLStyleIndex.load(indexFile, stylesDir).getStyleFiles());
+    }
+
+    @Test
+    public void loadRebuildsIndexOfOtherSource() throws IOException {
+        Path indexFile = workingDir.resolve(CSLStyleIndex.INDEX_FILE);
+        Files.writeString(indexFile, "source=other\nstyle.ieee.csl=IEEE\n");
+        assertEquals(Map.of(TITLE, "acm-sig-proceedings.csl"), CSLStyleIndex.load(indexFile, stylesDir).getStyleFiles());
+    }
+}
@@ -0,0 +1,113 @@
+package org.planqk.library.core.representation;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jabref.logic.citationstyle.CitationStyleOutputFormat;
+import org.jabref.model.entry.BibEntry;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.types.StandardEntryType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CitationCacheTest {
+    private static final Path LIBRARY = Path.of("library.bib");
+
+    private final AtomicInteger renderings = new AtomicInteger();
+    private CitationCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new CitationCache(2);
+        renderings.set(0);
+    }
+
+    @Test
+    public void cachesRenderedCitation() {
+        BibEntry entry = getEntry("Saha2018", "Fault Detection");
+        assertEquals("Fault Detection", getCitation(entry, "IEEE", CitationStyleOutputFormat.HTML));
+        assertEquals("Fault Detection", getCitation(entry, "IEEE", CitationStyleOutputFormat.HTML));
+        assertEquals(1, renderings.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void distinguishesStyleAndOutputFormat() {
+        BibEntry entry = getEntry("Saha2018", "Fault Detection");
+        getCitation(entry, "IEEE", CitationStyleOutputFormat.HTML);
+        getCitation(entry, "IEEE", CitationStyleOutputFormat.TEXT);
+        getCitation(entry, "ACM SIGGRAPH", CitationStyleOutputFormat.HTML);
+        assertEquals(3, renderings.get());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void rendersChangedEntryAgain() {
+        BibEntry entry = getEntry("Saha2018", "Fault Detection");
+        getCitation(entry, "IEEE", CitationStyleOutputFormat.HTML);
+        entry.setField(StandardField.TITLE, "Fault Detection Effectiveness");
+        assertEquals("Fault Detection Effectiveness", getCitation(entry, "IEEE", CitationStyleOutputFormat.HTML));
+        assertEquals(2, renderings.get());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedCitation() {
+        BibEntry first = getEntry("First", "First");
+        BibEntry second = getEntry("Second", "Second");
+        getCitation(first, "IEEE", CitationStyleOutputFormat.HTML);
+        getCitation(second, "IEEE", CitationStyleOutputFormat.HTML);
+        // Uses the first citation, so that the second one is evicted
+        getCitation(first, "IEEE", CitationStyleOutputFormat.HTML);
+        getCitation(getEntry("Third", "Third"), "IEEE", CitationStyleOutputFormat.HTML);
+        assertEquals(2, cache.getSize());
+
+        getCitation(first, "IEEE", CitationStyleOutputFormat.HTML);
+        getCitation(second, "IEEE", CitationStyleOutputFormat.HTML);
+        assertEquals(4, renderings.get());
+    }
+
+    @Test
+    public void invalidateCitationKeys() {
+        BibEntry first = getEntry("First", "First");
+        BibEntry second = getEntry("Second", "Second");
+        getCitation(first, "IEEE", CitationStyleOutputFormat.HTML);
+        getCitation(second, "IEEE", CitationStyleOutputFormat.HTML);
+        cache.invalidate(LIBRARY, Set.of("First"));
+        assertEquals(1, cache.getSize());
+
+        cache.invalidate(LIBRARY);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void doesNotCacheFailedRendering() {
+        BibEntry entry = getEntry("Saha2018", "Fault Detection");
+        assertTrue(cache.getCitation(LIBRARY, entry, "IEEE", CitationStyleOutputFormat.HTML, () -> {
+            renderings.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        assertEquals(0, cache.getSize());
+
+        assertEquals("Fault Detection", getCitation(entry, "IEEE", CitationStyleOutputFormat.HTML));
+        assertEquals(2, renderings.get());
+        assertEquals(1, cache.getSize());
+    }
+
+    private String getCitation(BibEntry entry, String style, CitationStyleOutputFormat outputFormat) {
+        return cache.getCitation(LIBRARY, entry, style, outputFormat, () -> {
+            renderings.incrementAndGet();
+            return entry.getField(StandardField.TITLE);
+        }).orElseThrow();
+    }
+
+    private BibEntry getEntry(String citationKey, String title) {
+        return new BibEntry(StandardEntryType.Article).withCitationKey(citationKey).withField(StandardField.TITLE, title);
+    }
+}
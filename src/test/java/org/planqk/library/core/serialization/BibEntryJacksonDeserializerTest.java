@@ -58,6 +58,16 @@ class BibEntryJacksonDeserializerTest {
         }
     }
 
+    @Test
+    void readArray() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new SimpleModule().addSerializer(new BibEntryJacksonSerializer(BibEntry.class))
+                                                .addDeserializer(BibEntry.class, new BibEntryJacksonDeserializer()));
+        List<BibEntry> entries = getEntriesLib1();
+        String json = mapper.writeValueAsString(entries);
+        assertEquals(entries, List.of(mapper.readValue(json, BibEntry[].class)));
+    }
+
     private List<BibEntry> getEntriesLib1() {
         BibEntry entry1 = new BibEntry(StandardEntryType.Article)
                 .withCitationKey("Saha2018")
@@ -37,6 +37,17 @@ class BibEntryJacksonSerializerTest {
         assertEquals("{\"entrytype\":\"Article\",\"citekey\":\"Sanchez2016\",\"author\":\"Jimi Sanchez\",\"date\":\"2016-06-01\",\"priority\":\"prio1\",\"title\":\"A Review of Pair-wise Testing\"}", json);
     }
 
+    @Test
+    void writeNormalizesLineBreaks() throws IOException {
+        BibEntry entry = new BibEntry(StandardEntryType.Misc)
+                .withCitationKey("Note2020")
+                .withField(StandardField.NOTE, "first line\r\nsecond line");
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new SimpleModule().addSerializer(new BibEntryJacksonSerializer(BibEntry.class)));
+        String json = mapper.writeValueAsString(entry);
+        assertEquals("{\"entrytype\":\"Misc\",\"citekey\":\"Note2020\",\"note\":\"first line\\nsecond line\"}", json);
+    }
+
     private List<BibEntry> getEntriesLib1() {
         BibEntry entry1 = new BibEntry(StandardEntryType.Article)
                 .withCitationKey("Saha2018")
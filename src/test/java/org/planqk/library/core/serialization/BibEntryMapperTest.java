@@ -1,6 +1,7 @@
 package org.planqk.library.core.serialization;
 
 import java.util.List;
+import java.util.Set;
 
 import org.jabref.model.entry.BibEntry;
 import org.jabref.model.entry.field.StandardField;
@@ -36,6 +37,15 @@ class BibEntryMapperTest {
         }
     }
 
+    @Test
+    public void testEntryToDTOWithProjectedFields() {
+        BibEntryDTO expected = new BibEntryDTO();
+        expected.entryType = "article";
+        expected.citationKey = "Saha2018";
+        expected.title = "Fault Detection Effectiveness of Source Test Case Generation Strategies for Metamorphic Testing";
+        assertEquals(expected, BibEntryMapper.map(getEntries().get(0), Set.of(StandardField.TITLE, StandardField.ABSTRACT)));
+    }
+
     private List<BibEntry> getEntries() {
         BibEntry entry1 = new BibEntry(StandardEntryType.Article)
                 .withCitationKey("Saha2018")
@@ -0,0 +1,50 @@
+package org.planqk.library.core.serialization;
+
+import org.jabref.model.entry.field.IEEEField;
+import org.jabref.model.entry.field.SpecialField;
+import org.jabref.model.entry.field.StandardField;
+import org.jabref.model.entry.field.UnknownField;
+import org.jabref.model.entry.types.IEEETranEntryType;
+import org.jabref.model.entry.types.StandardEntryType;
+import org.jabref.model.entry.types.UnknownEntryType;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BibEntryNamesTest {
+
+    @Test
+    void getFieldIgnoresCase() {
+        assertEquals(StandardField.TITLE, BibEntryNames.getField("title"));
+        assertEquals(StandardField.TITLE, BibEntryNames.getField("Title"));
+        assertEquals(StandardField.HOWPUBLISHED, BibEntryNames.getField("HOWPUBLISHED"));
+    }
+
+    @Test
+    void getFieldResolvesIEEEAndSpecialFields() {
+        assertEquals(IEEEField.CTLUSE_ARTICLE_NUMBER, BibEntryNames.getField(IEEEField.CTLUSE_ARTICLE_NUMBER.getName()));
+        assertEquals(SpecialField.PRIORITY, BibEntryNames.getField("priority"));
+        assertEquals(SpecialField.QUALITY, BibEntryNames.getField(SpecialField.QUALITY.getName()));
+    }
+
+    @Test
+    void getFieldInternsUnknownFields() {
+        assertEquals(new UnknownField("123"), BibEntryNames.getField("123"));
+        assertSame(BibEntryNames.getField("customfield"), BibEntryNames.getField("customfield"));
+    }
+
+    @Test
+    void getEntryTypeIgnoresCase() {
+        assertEquals(StandardEntryType.Article, BibEntryNames.getEntryType("article"));
+        assertEquals(StandardEntryType.InProceedings, BibEntryNames.getEntryType("InProceedings"));
+        assertEquals(IEEETranEntryType.IEEEtranBSTCTL, BibEntryNames.getEntryType("ieeetranbstctl"));
+    }
+
+    @Test
+    void getEntryTypeInternsUnknownEntryTypes() {
+        assertEquals(new UnknownEntryType("customtype"), BibEntryNames.getEntryType("customtype"));
+        assertSame(BibEntryNames.getEntryType("customtype"), BibEntryNames.getEntryType("customtype"));
+    }
+}